@@ -0,0 +1,26 @@
+package itmo.ivank.client;
+
+import itmo.ivank.dto.PolicyStats;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * One {@link CallPolicy} per remote call type, created on first use.
+ */
+@ApplicationScoped
+public class CallPolicies {
+
+    private final Map<String, CallPolicy> policies = new ConcurrentSkipListMap<>();
+
+    public CallPolicy get(String name) {
+        return policies.computeIfAbsent(name, CallPolicy::new);
+    }
+
+    public List<PolicyStats> stats() {
+        return policies.values().stream().map(CallPolicy::stats).toList();
+    }
+
+}
@@ -0,0 +1,170 @@
+package itmo.ivank.client;
+
+import itmo.ivank.dto.PolicyStats;
+import itmo.ivank.exception.UnavailableException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker, bulkhead and retry around one kind of remote call, configured with {@code soa.client.<name>.*}
+ * system properties. Only {@link RemoteFailure}s open the breaker, any other outcome means the service answered.
+ */
+public class CallPolicy {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int maxConcurrent;
+    private final long bulkheadWaitMillis;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Semaphore bulkhead;
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejectedByBreaker = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+
+    public CallPolicy(String name) {
+        this.name = name;
+        failureThreshold = Math.max(1, Integer.getInteger(key("breaker.failure-threshold"), 5));
+        openNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong(key("breaker.open-millis"), 10000));
+        maxConcurrent = Math.max(1, Integer.getInteger(key("bulkhead.max-concurrent"), 16));
+        bulkheadWaitMillis = Long.getLong(key("bulkhead.wait-millis"), 100);
+        maxAttempts = Math.max(1, Integer.getInteger(key("retry.max-attempts"), 3));
+        initialBackoffMillis = Math.max(1, Long.getLong(key("retry.initial-backoff-millis"), 100));
+        maxBackoffMillis = Long.getLong(key("retry.max-backoff-millis"), 1000);
+        bulkhead = new Semaphore(maxConcurrent);
+    }
+
+    private String key(String property) {
+        return "soa.client." + name + "." + property;
+    }
+
+    /**
+     * Runs {@code call}, repeating it with jittered exponential backoff while it fails with a retryable
+     * {@link RemoteFailure}.
+     *
+     * @throws UnavailableException if the breaker is open or the bulkhead stays full
+     */
+    public <T> T execute(Supplier<T> call) {
+        return execute(Supplier::get, call);
+    }
+
+    /**
+     * Like {@link #execute(Supplier)}, but runs every attempt inside {@code around}, so that what it holds, such as
+     * locks, is released during the backoff.
+     */
+    public <T> T execute(Function<Supplier<T>, T> around, Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return around.apply(() -> attempt(call));
+            } catch (RemoteFailure e) {
+                if (!e.isRetryable() || attempt >= maxAttempts) throw e;
+                retries.increment();
+                long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private <T> T attempt(Supplier<T> call) {
+        if (!allow()) {
+            rejectedByBreaker.increment();
+            throw new UnavailableException("Spring service is unavailable for " + name + " calls, try again later");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            abandonTrial();
+            rejectedByBulkhead.increment();
+            throw new UnavailableException("Too many concurrent " + name + " calls, try again later");
+        }
+        calls.increment();
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RemoteFailure e) {
+            onFailure();
+            throw e;
+        } catch (RuntimeException e) {
+            onSuccess();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private synchronized boolean allow() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (System.nanoTime() - openedAt < openNanos) yield false;
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                yield true;
+            }
+            case HALF_OPEN -> {
+                // a single trial call decides whether the breaker closes again
+                if (trialInFlight) yield false;
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    private synchronized void abandonTrial() {
+        if (state == State.HALF_OPEN) trialInFlight = false;
+    }
+
+    private synchronized void onSuccess() {
+        successes.increment();
+        if (state == State.OPEN) return;
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        failures.increment();
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) openedAt = System.nanoTime();
+            state = State.OPEN;
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized PolicyStats stats() {
+        return new PolicyStats(name, state.name(), calls.sum(), successes.sum(), failures.sum(), retries.sum(),
+                rejectedByBreaker.sum(), rejectedByBulkhead.sum(), maxConcurrent - bulkhead.availablePermits());
+    }
+
+}
@@ -0,0 +1,78 @@
+package itmo.ivank.client;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.ReaderInterceptor;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Advertises gzip/deflate to the Spring service, inflates compressed responses and gzips
+ * request bodies that are at least {@code minRequestSize} bytes long.
+ */
+public class CompressionInterceptor implements ClientRequestFilter, WriterInterceptor, ReaderInterceptor {
+
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private final int minRequestSize;
+
+    public CompressionInterceptor(int minRequestSize) {
+        this.minRequestSize = minRequestSize;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (!requestContext.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING, GZIP + ", " + DEFLATE);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (minRequestSize < 0 || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+        OutputStream original = context.getOutputStream();
+        var buffer = new ByteArrayOutputStream();
+        context.setOutputStream(buffer);
+        context.proceed();
+        if (buffer.size() >= minRequestSize) {
+            context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+            context.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            var gzip = new GZIPOutputStream(original, 8192);
+            buffer.writeTo(gzip);
+            gzip.finish();
+        } else {
+            buffer.writeTo(original);
+        }
+        context.setOutputStream(original);
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        String encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding != null) {
+            encoding = encoding.trim().toLowerCase();
+            if (encoding.equals(GZIP) || encoding.equals("x-gzip")) {
+                context.setInputStream(new GZIPInputStream(context.getInputStream(), 8192));
+                context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+            } else if (encoding.equals(DEFLATE)) {
+                context.setInputStream(new InflaterInputStream(context.getInputStream()));
+                context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+            }
+        }
+        return context.proceed();
+    }
+
+}
@@ -0,0 +1,56 @@
+package itmo.ivank.client;
+
+import itmo.ivank.exception.ConflictException;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks per organization id. Operations on other organizations run in parallel, the Spring
+ * service serializes the same organizations across nodes with advisory locks.
+ */
+@ApplicationScoped
+public class OrganizationLocks {
+
+    private static final int STRIPES = Integer.getInteger("soa.locks.stripes", 64);
+    private static final long WAIT_MILLIS = Long.getLong("soa.locks.wait-millis", 5000);
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public OrganizationLocks() {
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    /**
+     * Runs {@code action} holding the stripes of all {@code ids}. Stripes are taken in index order, which is the
+     * same for every caller, and the whole acquisition waits at most {@code soa.locks.wait-millis}.
+     */
+    public <T> T withLocks(Supplier<T> action, Long... ids) {
+        int[] stripes = Arrays.stream(ids).mapToInt(id -> Math.floorMod(Long.hashCode(id), STRIPES))
+                .distinct().sorted().toArray();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS);
+        List<ReentrantLock> held = new ArrayList<>(stripes.length);
+        try {
+            for (int stripe : stripes) {
+                var lock = locks[stripe];
+                if (!lock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    throw new ConflictException("Organizations " + Arrays.toString(ids)
+                            + " are busy with another operation, try again later");
+                }
+                held.add(lock);
+            }
+            return action.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for organizations " + Arrays.toString(ids));
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) held.get(i).unlock();
+        }
+    }
+
+}
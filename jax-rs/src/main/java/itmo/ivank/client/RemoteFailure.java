@@ -0,0 +1,35 @@
+package itmo.ivank.client;
+
+import itmo.ivank.exception.BadGatewayException;
+
+import java.net.ConnectException;
+
+/**
+ * The Spring service could not be reached, timed out or failed with a 5xx. Counts against the circuit breaker and
+ * is answered with 502.
+ */
+class RemoteFailure extends BadGatewayException {
+
+    private final boolean retryable;
+
+    RemoteFailure(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    /**
+     * A call that never got a response is only safe to repeat if it is idempotent or was never sent.
+     */
+    static RemoteFailure of(String message, Throwable cause, boolean idempotent) {
+        boolean notSent = false;
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            notSent |= t instanceof ConnectException;
+        }
+        return new RemoteFailure(message, idempotent || notSent);
+    }
+
+    boolean isRetryable() {
+        return retryable;
+    }
+
+}
@@ -1,215 +1,116 @@
 package itmo.ivank.client;
 
 import itmo.ivank.dto.Acquiring;
+import itmo.ivank.dto.DeleteResult;
 import itmo.ivank.dto.FireResponse;
-import itmo.ivank.dto.IdRequest;
-import itmo.ivank.dto.employee.Employee;
-import itmo.ivank.dto.employee.EmployeesList;
-import itmo.ivank.dto.employee.EmployeeRequest;
-import itmo.ivank.dto.employee.EmployeeRequestList;
-import itmo.ivank.dto.organization.Organization;
-import itmo.ivank.dto.organization.OrganizationRequest;
 import itmo.ivank.exception.*;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
-import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.MediaType;
 
 
-import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @ApplicationScoped
 public class SpringClient {
 
-    private static final String BASE_URL = "https://spring-wildfly:8443/soa/api/v1";
-    private final Client client = ClientBuilder.newClient();
-
-    public FireResponse fireAllOrgEmployees(Long id) {
-        var ids = getIds(id);
-
-        if (ids == null || ids.isEmpty()) return new FireResponse(0);
-
-        deleteEmployees(ids);
-        return new FireResponse(ids.size());
+    private static final String BASE_URL = System.getProperty("soa.spring.url", "https://spring-wildfly:8443/soa/api/v1");
+    private static final int COMPRESSION_MIN_SIZE = Integer.getInteger("soa.client.compression.min-size", 2048);
+    private static final long CONNECT_TIMEOUT_MILLIS = Long.getLong("soa.client.connect-timeout-millis", 2000);
+    // the Spring service keys read-your-writes replica routing on it, so it must name the end user, not the gateway
+    private static final String CLIENT_ID_HEADER = System.getProperty("soa.client.client-id-header", "X-Client-Id");
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    // room for the four soa.lock.wait-timeout (5 s) waits an acquire may make in the Spring service, so that a busy
+    // organization ends with its 409; plus soa.locks.wait-millis it stays below the 60 s timeout of the frontend proxy
+    private static final long READ_TIMEOUT_MILLIS = Long.getLong("soa.client.read-timeout-millis", 25000);
+    private final Client client = ClientBuilder.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+            .readTimeout(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+            .register(new CompressionInterceptor(COMPRESSION_MIN_SIZE))
+            .build();
+
+    @Inject
+    OrganizationLocks locks;
+
+    @Inject
+    CallPolicies policies;
+
+    /**
+     * Identifies the end user behind {@code request}: its own client id, else the first address the frontend proxy
+     * forwarded, else the remote address.
+     */
+    public static String clientId(HttpServletRequest request) {
+        String client = request.getHeader(CLIENT_ID_HEADER);
+        if (client != null && !client.isBlank()) return client.trim();
+        String forwarded = request.getHeader(FORWARDED_FOR);
+        if (forwarded != null && !forwarded.isBlank()) return forwarded.split(",", 2)[0].trim();
+        return request.getRemoteAddr();
     }
 
-    public Acquiring acquire(Long acquirerId, Long acquiredId) {
-        if (Objects.equals(acquirerId, acquiredId)) throw new ClientException("Organization can not acquire itself");
-
-        List<Runnable> compensations = new ArrayList<>();
-
-        try {
-            var acquirer = getOrganization(acquirerId);
-            var acquired = getOrganization(acquiredId);
-
-            float oldTurnover = acquirer.getAnnualTurnover();
-            BigDecimal newTurnoverBD = BigDecimal.valueOf(oldTurnover)
-                    .add(BigDecimal.valueOf(acquired.getAnnualTurnover()));
-            float newTurnover = newTurnoverBD.floatValue();
-            compensations.add(() -> updateTurnover(oldTurnover, acquirer));
-            var updatedAcquirer = updateTurnover(newTurnover, acquirer);
-
-            var employees = getEmployees(acquiredId);
-            var number = 0;
-            if (employees.getEmployees() != null) {
-                compensations.add(() -> transferEmployees(acquiredId, employees));
-                number = transferEmployees(acquirerId, employees).getEmployees().size();
-            }
-
-            compensations.add(() -> compensateOrganization(acquired));
-            deleteOrganization(acquiredId);
-
-            return new Acquiring(updatedAcquirer, acquired, number);
-        } catch (Exception e) {
-            e.printStackTrace();
-            StringBuilder message = new StringBuilder("Acquiring failed:" + e.getMessage());
-            if (!compensations.isEmpty()) {
-                message.append("\nPerforming ").append(compensations.size()).append(" compensation(s)");
-                for (int i = compensations.size() - 1; i >= 0; i--) {
-                    try {
-                        compensations.get(i).run();
-                        message.append("\nCompensation").append(i).append(" succeeded");
-                    } catch (ClientException ce) {
-                        message.append("\nCompensation ").append(i).append(" failed: ").append(ce.getMessage());
-                    }
-                }
-            }
-            if (e instanceof ClientException) {
-                throw new ServiceException("Exception due to internal logic or network:\n" + message);
-            } else if (e instanceof ApiException) {
-                throw new ServiceException("Exception due to API communication error:\n" + message);
-            } else throw new ServiceException("Unknown error:\n" + message);
-        }
+    public FireResponse fireAllOrgEmployees(String clientId, Long id) {
+        return policies.get("fire").execute(attempt -> locks.withLocks(attempt, id), () -> fire(clientId, id));
     }
 
-    private EmployeesList getEmployees(Long orgId) {
-        try (var response = client.target(BASE_URL + "/organizations/" + orgId + "/employees?size=0")
-                .request()
-                .header("Connection", "close")
-                .get()) {
-            if (response.getStatus() >= 400) {
-                throw new ApiException("Failed to get Employees:\n" + response.readEntity(String.class));
-            }
-            return response.readEntity(EmployeesList.class);
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClientException("Error during GET to /organizations/" + orgId + "/employees");
-        }
-    }
-
-    private List<Long> getIds(Long orgId) {
-        var employees = getEmployees(orgId);
-        if (employees.getEmployees() == null) return null;
-        return employees.getEmployees().stream().map(Employee::getId).toList();
+    public Acquiring acquire(String clientId, Long acquirerId, Long acquiredId) {
+        if (Objects.equals(acquirerId, acquiredId)) throw new ClientException("Organization can not acquire itself");
+        return policies.get("acquire").execute(attempt -> locks.withLocks(attempt, acquirerId, acquiredId),
+                () -> postAcquire(clientId, acquirerId, acquiredId));
     }
 
-    private void deleteEmployees(List<Long> ids) {
-        var request = new IdRequest(ids);
-        try (var response = client.target(BASE_URL + "/employees/batch/delete")
+    private Acquiring postAcquire(String clientId, Long acquirerId, Long acquiredId) {
+        String path = "/organizations/" + acquirerId + "/acquire/" + acquiredId;
+        try (var response = client.target(BASE_URL + path)
                 .request(MediaType.APPLICATION_XML)
                 .header("Connection", "close")
-                .post(Entity.xml(request))) {
-            if (response.getStatus() >= 400) {
-                throw new ApiException("Failed to delete Employees:\n" + response.readEntity(String.class));
+                .header(CLIENT_ID_HEADER, clientId)
+                .post(null)) {
+            if (response.getStatus() == 409) {
+                throw new ConflictException("Acquiring failed:\n" + response.readEntity(String.class));
             }
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception ex) {
-            throw new ClientException("Error during POST to /employees/batch/delete");
-        }
-    }
-
-    private EmployeesList transferEmployees(Long orgId, EmployeesList employees) {
-        var request = new EmployeeRequestList(employees.getEmployees()
-                .stream().map(e -> new EmployeeRequest(e.getId(), e.getName(), e.getSalary(), orgId))
-                .toList());
-        try (var response = client.target(BASE_URL + "/employees/batch/update")
-                .request(MediaType.APPLICATION_XML)
-                .header("Connection", "close")
-                .post(Entity.xml(request))) {
-            if (response.getStatus() >= 400) {
-                throw new ClientException("Failed to transfer Employees:\n" + response.readEntity(String.class));
+            if (response.getStatus() >= 500) {
+                throw new RemoteFailure("Acquiring failed:\n" + response.readEntity(String.class), false);
             }
-            return response.readEntity(EmployeesList.class);
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClientException("Error during POST to /employees/batch/update");
-        }
-    }
-
-    private Organization updateTurnover(Float turnover, Organization organization) {
-        var address = organization.getOfficialAddress() == null || organization.getOfficialAddress().getStreet() == null ?
-                null : organization.getOfficialAddress();
-        try (var response = client.target(BASE_URL + "/organizations/" + organization.getId())
-                .request(MediaType.APPLICATION_XML)
-                .header("Connection", "close")
-                .put(Entity.xml(new OrganizationRequest(
-                        organization.getName(),
-                        organization.getCoordinates(),
-                        turnover,
-                        organization.getFullName(),
-                        organization.getType(),
-                        address
-                )))) {
             if (response.getStatus() >= 400) {
-                throw new ClientException("Failed to update turnover:\n" + response.readEntity(String.class));
+                throw new ServiceException("Acquiring failed:\n" + response.readEntity(String.class));
             }
-            return response.readEntity(Organization.class);
-        } catch (ApiException e) {
+            return response.readEntity(Acquiring.class);
+        } catch (ServiceException | ConflictException | RemoteFailure e) {
             throw e;
+        } catch (ProcessingException e) {
+            throw RemoteFailure.of("Spring service did not respond:\nError during POST to " + path, e, false);
         } catch (Exception e) {
-            throw new ClientException("Error during PUT to /organizations/" + organization.getId());
+            throw new ServiceException("Exception due to internal logic or network:\nError during POST to " + path);
         }
     }
 
-    private Organization getOrganization(Long id) {
-        try (var response = client.target(BASE_URL + "/organizations/" + id)
-                .request()
+    private FireResponse fire(String clientId, Long id) {
+        String path = "/organizations/" + id + "/fire";
+        try (var response = client.target(BASE_URL + path)
+                .request(MediaType.APPLICATION_XML)
                 .header("Connection", "close")
-                .get()) {
-            if (response.getStatus() >= 400) {
-                throw new ApiException("Failed to get Organization:\n" + response.readEntity(String.class));
+                .header(CLIENT_ID_HEADER, clientId)
+                .post(null)) {
+            if (response.getStatus() == 409) {
+                throw new ConflictException("Failed to fire Employees:\n" + response.readEntity(String.class));
             }
-            return response.readEntity(Organization.class);
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception ex) {
-            throw new ClientException("Error during GET to /organizations/" + id);
-        }
-    }
-
-    private void deleteOrganization(Long id) {
-        try (var response = client.target(BASE_URL + "/organizations/" + id)
-                .request()
-                .header("Connection", "close")
-                .delete()) {
-            if (response.getStatus() >= 400) {
-                throw new ApiException("Failed to delete Organization #" + id + ":\n" +
-                        response.readEntity(String.class));
+            if (response.getStatus() >= 500) {
+                throw new RemoteFailure("Failed to fire Employees:\n" + response.readEntity(String.class), false);
             }
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ClientException("Error during DELETE to /organizations/" + id);
-        }
-    }
-
-    private void compensateOrganization(Organization organization) {
-        try (var response = client.target(BASE_URL + "/organizations/compensate")
-                .request(MediaType.APPLICATION_XML)
-                .header("Connection", "close")
-                .post(Entity.xml(organization))) {
             if (response.getStatus() >= 400) {
-                throw new ApiException("Failed to create Organization" + ":\n" + response.readEntity(String.class));
+                throw new ApiException("Failed to fire Employees:\n" + response.readEntity(String.class));
             }
-        } catch (ApiException e) {
+            return new FireResponse(response.readEntity(DeleteResult.class).getDeletedCount().intValue());
+        } catch (ApiException | ConflictException | RemoteFailure e) {
             throw e;
+        } catch (ProcessingException e) {
+            throw RemoteFailure.of("Spring service did not respond:\nError during POST to " + path, e, false);
         } catch (Exception e) {
-            throw new ClientException("Error during POST to /organizations/compensate");
+            throw new ClientException("Error during POST to " + path);
         }
     }
 
@@ -1,4 +1,4 @@
-package itmo.ivank.dto.employee;
+package itmo.ivank.dto;
 
 import jakarta.xml.bind.annotation.XmlRootElement;
 import lombok.AllArgsConstructor;
@@ -9,11 +9,6 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class EmployeeRequest  {
-
-    private Long id;
-    private String name;
-    private Long salary;
-    private Long organizationId;
-
+public class DeleteResult {
+    private Long deletedCount;
 }
@@ -0,0 +1,22 @@
+package itmo.ivank.dto;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@XmlRootElement(name = "policy")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PolicyStats {
+    private String name;
+    private String state;
+    private Long calls;
+    private Long successes;
+    private Long failures;
+    private Long retries;
+    private Long rejectedByBreaker;
+    private Long rejectedByBulkhead;
+    private Integer inFlight;
+}
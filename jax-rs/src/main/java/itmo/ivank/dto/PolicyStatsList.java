@@ -10,18 +10,12 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
-@XmlRootElement(name = "ids")
-@XmlAccessorType(XmlAccessType.PROPERTY)
+@XmlRootElement(name = "policies")
+@XmlAccessorType(XmlAccessType.FIELD)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class IdRequest {
-
-    private List<Long> ids;
-
-    @XmlElement(name = "id")
-    public List<Long> getIds() {
-        return ids;
-    }
-
+public class PolicyStatsList {
+    @XmlElement(name = "policy")
+    private List<PolicyStats> policies;
 }
@@ -1,20 +0,0 @@
-package itmo.ivank.dto.employee;
-
-import itmo.ivank.dto.organization.Organization;
-import jakarta.xml.bind.annotation.XmlRootElement;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@XmlRootElement
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class Employee {
-
-    private Long id;
-    private String name;
-    private Long salary;
-    private Organization organization;
-
-}
@@ -1,27 +0,0 @@
-package itmo.ivank.dto.employee;
-
-import jakarta.xml.bind.annotation.XmlAccessType;
-import jakarta.xml.bind.annotation.XmlAccessorType;
-import jakarta.xml.bind.annotation.XmlElement;
-import jakarta.xml.bind.annotation.XmlRootElement;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.util.List;
-
-@XmlRootElement(name = "employees")
-@XmlAccessorType(XmlAccessType.PROPERTY)
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class EmployeesList {
-
-    private List<Employee> employees;
-
-    @XmlElement(name = "employee")
-    public List<Employee> getEmployees() {
-        return employees;
-    }
-
-}
@@ -18,4 +18,5 @@ public class Organization {
     private Coordinates coordinates;
     private OrganizationType type;
     private Address officialAddress;
+    private Long version;
 }
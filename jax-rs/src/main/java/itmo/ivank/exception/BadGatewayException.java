@@ -0,0 +1,7 @@
+package itmo.ivank.exception;
+
+public class BadGatewayException extends RuntimeException {
+    public BadGatewayException(String message) {
+        super(message);
+    }
+}
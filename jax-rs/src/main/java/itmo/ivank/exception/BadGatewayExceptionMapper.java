@@ -0,0 +1,19 @@
+package itmo.ivank.exception;
+
+import itmo.ivank.dto.AppError;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class BadGatewayExceptionMapper implements ExceptionMapper<BadGatewayException> {
+
+    @Override
+    public Response toResponse(BadGatewayException e) {
+        return Response.status(502)
+                .entity(new AppError(502, e.getMessage()))
+                .type(MediaType.APPLICATION_XML)
+                .build();
+    }
+}
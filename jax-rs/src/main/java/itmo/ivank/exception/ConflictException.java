@@ -0,0 +1,7 @@
+package itmo.ivank.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
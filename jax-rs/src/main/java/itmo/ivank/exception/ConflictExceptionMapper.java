@@ -0,0 +1,19 @@
+package itmo.ivank.exception;
+
+import itmo.ivank.dto.AppError;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class ConflictExceptionMapper implements ExceptionMapper<ConflictException> {
+
+    @Override
+    public Response toResponse(ConflictException e) {
+        return Response.status(409)
+                .entity(new AppError(409, e.getMessage()))
+                .type(MediaType.APPLICATION_XML)
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package itmo.ivank.exception;
+
+public class UnavailableException extends RuntimeException {
+    public UnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package itmo.ivank.exception;
+
+import itmo.ivank.dto.AppError;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class UnavailableExceptionMapper implements ExceptionMapper<UnavailableException> {
+
+    @Override
+    public Response toResponse(UnavailableException e) {
+        return Response.status(503)
+                .entity(new AppError(503, e.getMessage()))
+                .type(MediaType.APPLICATION_XML)
+                .build();
+    }
+}
@@ -3,10 +3,12 @@ package itmo.ivank.resources;
 import itmo.ivank.client.SpringClient;
 import itmo.ivank.dto.Acquiring;
 import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 
 @Path("/acquire/{acquirer-id}/{acquired-id}")
@@ -18,8 +20,9 @@ public class AcquireResource {
     @POST
     @Produces(MediaType.APPLICATION_XML)
     public Acquiring acquire(@PathParam("acquirer-id") Long acquirerId,
-                             @PathParam("acquired-id") Long acquiredId) {
-        return client.acquire(acquirerId, acquiredId);
+                             @PathParam("acquired-id") Long acquiredId,
+                             @Context HttpServletRequest request) {
+        return client.acquire(SpringClient.clientId(request), acquirerId, acquiredId);
     }
 
 }
@@ -0,0 +1,23 @@
+package itmo.ivank.resources;
+
+import itmo.ivank.client.CallPolicies;
+import itmo.ivank.dto.PolicyStatsList;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+@Path("/client/policies")
+public class ClientPoliciesResource {
+
+    @Inject
+    CallPolicies policies;
+
+    @GET
+    @Produces(MediaType.APPLICATION_XML)
+    public PolicyStatsList getPolicies() {
+        return new PolicyStatsList(policies.stats());
+    }
+
+}
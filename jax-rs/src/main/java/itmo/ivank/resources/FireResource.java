@@ -3,10 +3,12 @@ package itmo.ivank.resources;
 import itmo.ivank.client.SpringClient;
 import itmo.ivank.dto.FireResponse;
 import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 
 import java.util.Map;
@@ -19,8 +21,8 @@ public class FireResource {
 
     @POST
     @Produces(MediaType.APPLICATION_XML)
-    public FireResponse fireAllOrgEmployees(@PathParam("id") Long id) {
-        return client.fireAllOrgEmployees(id);
+    public FireResponse fireAllOrgEmployees(@PathParam("id") Long id, @Context HttpServletRequest request) {
+        return client.fireAllOrgEmployees(SpringClient.clientId(request), id);
     }
 
 }
@@ -0,0 +1,199 @@
+package itmo.ivank.client;
+
+import com.sun.net.httpserver.HttpServer;
+import itmo.ivank.dto.PolicyStats;
+import itmo.ivank.exception.BadGatewayExceptionMapper;
+import itmo.ivank.exception.UnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link SpringClient} against a stub of the Spring service.
+ */
+class CallPolicyTest {
+
+    private static int port;
+
+    private HttpServer server;
+    private SpringClient client;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMillis;
+    private volatile CountDownLatch started = new CountDownLatch(0);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeAll
+    static void configure() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        System.setProperty("soa.spring.url", "http://localhost:" + port + "/soa/api/v1");
+        System.setProperty("soa.client.read-timeout-millis", "1000");
+        System.setProperty("soa.locks.wait-millis", "100");
+        System.setProperty("soa.client.fire.breaker.failure-threshold", "2");
+        System.setProperty("soa.client.fire.breaker.open-millis", "300");
+        System.setProperty("soa.client.fire.bulkhead.max-concurrent", "2");
+        System.setProperty("soa.client.fire.bulkhead.wait-millis", "50");
+        System.setProperty("soa.client.acquire.retry.max-attempts", "3");
+        System.setProperty("soa.client.acquire.retry.initial-backoff-millis", "5");
+        System.setProperty("soa.client.acquire.retry.max-backoff-millis", "10");
+    }
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            started.countDown();
+            try {
+                Thread.sleep(delayMillis);
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (status == 200
+                    ? "<deleteResult><deletedCount>3</deletedCount></deleteResult>"
+                    : "<appError><code>" + status + "</code></appError>").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        client = new SpringClient();
+        client.locks = new OrganizationLocks();
+        client.policies = new CallPolicies();
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private PolicyStats stats(String name) {
+        return client.policies.get(name).stats();
+    }
+
+    @Test
+    void breakerOpensOnFailuresAndClosesAfterASuccessfulTrial() throws InterruptedException {
+        status = 500;
+        assertThrows(RemoteFailure.class, () -> client.fireAllOrgEmployees("test", 1L));
+        assertThrows(RemoteFailure.class, () -> client.fireAllOrgEmployees("test", 1L));
+        assertEquals("OPEN", stats("fire").getState());
+
+        assertThrows(UnavailableException.class, () -> client.fireAllOrgEmployees("test", 1L));
+        // a POST that got a response is never repeated, and the open breaker does not call at all
+        assertEquals(2, hits.get());
+        assertEquals(1, stats("fire").getRejectedByBreaker());
+
+        Thread.sleep(400);
+        status = 200;
+        assertEquals(3, client.fireAllOrgEmployees("test", 1L).getEmployeeCount());
+        assertEquals("CLOSED", stats("fire").getState());
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void failedTrialOpensTheBreakerAgain() throws InterruptedException {
+        status = 500;
+        assertThrows(RemoteFailure.class, () -> client.fireAllOrgEmployees("test", 1L));
+        assertThrows(RemoteFailure.class, () -> client.fireAllOrgEmployees("test", 1L));
+
+        Thread.sleep(400);
+        assertThrows(RemoteFailure.class, () -> client.fireAllOrgEmployees("test", 1L));
+        assertEquals("OPEN", stats("fire").getState());
+        assertThrows(UnavailableException.class, () -> client.fireAllOrgEmployees("test", 1L));
+    }
+
+    @Test
+    void readTimeoutsCountAsFailures() {
+        delayMillis = 1500;
+        assertThrows(RemoteFailure.class, () -> client.fireAllOrgEmployees("test", 1L));
+        assertThrows(RemoteFailure.class, () -> client.fireAllOrgEmployees("test", 1L));
+
+        assertEquals(2, hits.get());
+        assertEquals(2, stats("fire").getFailures());
+        assertEquals("OPEN", stats("fire").getState());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondItsLimit() throws Exception {
+        started = new CountDownLatch(2);
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> client.fireAllOrgEmployees("test", 1L));
+            Future<?> second = executor.submit(() -> client.fireAllOrgEmployees("test", 2L));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(UnavailableException.class, () -> client.fireAllOrgEmployees("test", 3L));
+            assertEquals(1, stats("fire").getRejectedByBulkhead());
+            assertEquals(2, stats("fire").getInFlight());
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("CLOSED", stats("fire").getState());
+        assertEquals(0, stats("fire").getInFlight());
+    }
+
+    @Test
+    void retriesRefusedConnectionsAndAnswersWithBadGateway() {
+        server.stop(0);
+
+        var failure = assertThrows(RemoteFailure.class, () -> client.acquire("test", 1L, 2L));
+
+        assertEquals(3, stats("acquire").getCalls());
+        assertEquals(2, stats("acquire").getRetries());
+        assertEquals(502, new BadGatewayExceptionMapper().toResponse(failure).getStatus());
+    }
+
+    @Test
+    void releasesTheOrganizationsWhileBackingOff() throws Exception {
+        // keeps retrying for seconds, far longer than anyone waits for the stripes
+        System.setProperty("soa.client.acquire.retry.max-attempts", "50");
+        System.setProperty("soa.client.acquire.retry.initial-backoff-millis", "200");
+        System.setProperty("soa.client.acquire.retry.max-backoff-millis", "200");
+        client.policies = new CallPolicies();
+        server.stop(0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> client.acquire("test", 1L, 2L));
+            while (stats("acquire").getRetries() == 0) Thread.sleep(5);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals("free", client.locks.withLocks(() -> "free", 1L, 2L));
+                Thread.sleep(20);
+            }
+        } finally {
+            executor.shutdownNow();
+            System.setProperty("soa.client.acquire.retry.max-attempts", "3");
+            System.setProperty("soa.client.acquire.retry.initial-backoff-millis", "5");
+            System.setProperty("soa.client.acquire.retry.max-backoff-millis", "10");
+        }
+    }
+
+}
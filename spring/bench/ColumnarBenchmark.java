@@ -0,0 +1,91 @@
+import itmo.ivank.soa.analytics.NumericColumn;
+import itmo.ivank.soa.analytics.OrganizationColumns;
+import itmo.ivank.soa.repository.AnalyticsRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Compares {@link OrganizationColumns} with the SQL aggregates of {@link AnalyticsRepository} on a database
+ * the application has already initialized. The organizations table is topped up with generated rows to each
+ * requested size, so use a dedicated database.
+ * <p>
+ * Usage, from {@code spring/} after {@code mvn package -DskipTests} and
+ * {@code mvn dependency:build-classpath -Dmdep.outputFile=target/classpath.txt}:
+ * {@code java -Xmx3g -cp target/classes:$(cat target/classpath.txt) bench/ColumnarBenchmark.java
+ * jdbc:postgresql://localhost:5432/bench 1000000 10000000}
+ */
+public class ColumnarBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int RUNS = 5;
+    private static final int INSERT_BATCH = 1_000_000;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    public static void main(String[] args) {
+        String url = args.length > 0 ? args[0] : "jdbc:postgresql://localhost:5432/bench";
+        long[] sizes = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToLong(Long::parseLong).toArray()
+                : new long[]{1_000_000, 10_000_000};
+        var dataSource = new DriverManagerDataSource(url,
+                System.getProperty("user", "postgres"), System.getProperty("password", "postgres"));
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        var sql = new AnalyticsRepository(jdbcTemplate);
+
+        for (long size : sizes) {
+            fill(jdbcTemplate, size);
+            var columns = new OrganizationColumns();
+            long started = System.nanoTime();
+            sql.loadColumns(columns, null);
+            System.out.printf("%n%,d rows, loaded into columns in %,d ms%n", columns.count(), (System.nanoTime() - started) / 1_000_000);
+            System.out.printf("%-28s %12s %12s%n", "query", "sql, ms", "columns, ms");
+            compare("turnover sum", () -> sql.stats(NumericColumn.ANNUAL_TURNOVER),
+                    () -> columns.stats(NumericColumn.ANNUAL_TURNOVER));
+            compare("count by type", sql::countByType, columns::countByType);
+            compare("count by town", sql::countByTown, columns::countByTown);
+            compare("histogram, 20 buckets", () -> sql.histogram(NumericColumn.ANNUAL_TURNOVER, 20, 0, 1_000_000),
+                    () -> columns.histogram(NumericColumn.ANNUAL_TURNOVER, 20, 0, 1_000_000));
+            compare("percentiles 50/90/99", () -> sql.percentiles(NumericColumn.ANNUAL_TURNOVER, PERCENTILES),
+                    () -> columns.percentiles(NumericColumn.ANNUAL_TURNOVER, PERCENTILES));
+        }
+    }
+
+    private static void fill(JdbcTemplate jdbcTemplate, long size) {
+        long present = jdbcTemplate.queryForObject("SELECT count(*) FROM organizations WHERE deleted_at IS NULL", Long.class);
+        while (present < size) {
+            long batch = Math.min(INSERT_BATCH, size - present);
+            jdbcTemplate.update("""
+                    INSERT INTO organizations (name, creation_date, annual_turnover, full_name, coordinates_x,
+                                               coordinates_y, type, official_address_street, official_address_town_x,
+                                               official_address_town_y, official_address_town_name)
+                    SELECT 'org-' || i, current_date, 1 + (i * 7919) % 1000000, 'Organization ' || i, i % 1000,
+                           (i % 997)::real, (ARRAY['COMMERCIAL', 'GOVERNMENT', 'PRIVATE_LIMITED_COMPANY',
+                           'OPEN_JOINT_STOCK_COMPANY'])[1 + i % 4], 'street ' || i % 5000, (i % 311)::real, i % 271,
+                           'town-' || i % 200
+                    FROM generate_series(?::bigint, ?::bigint) AS i
+                    """, present + 1, present + batch);
+            present += batch;
+            System.out.printf("inserted up to %,d rows%n", present);
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE organizations");
+    }
+
+    private static void compare(String name, Supplier<?> sql, Supplier<?> columns) {
+        System.out.printf("%-28s %12.1f %12.1f%n", name, median(sql), median(columns));
+    }
+
+    private static double median(Supplier<?> query) {
+        for (int i = 0; i < WARMUP; i++) query.get();
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            query.get();
+            millis[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+
+}
@@ -0,0 +1,123 @@
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load generator: for every concurrency level keeps that many requests in flight
+ * against each target and prints throughput and latency percentiles.
+ * <p>
+ * Usage: {@code java ConcurrencyBench.java <requestsPerLevel> <levels> <url> [<url> ...]}, e.g.
+ * {@code java ConcurrencyBench.java 2000 10,50,200 https://localhost:8444/soa/api/v1/organizations/types
+ * https://localhost:8446/soa/api/v1/organizations/types} compares the WildFly deployment with the
+ * {@code virtual} profile.
+ */
+public class ConcurrencyBench {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: java ConcurrencyBench.java <requestsPerLevel> <levels> <url> [<url> ...]");
+            System.exit(1);
+        }
+        int requests = Integer.parseInt(args[0]);
+        int[] levels = Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray();
+        List<String> urls = Arrays.asList(args).subList(2, args.length);
+
+        HttpClient client = HttpClient.newBuilder()
+                .sslContext(trustAll())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("%-60s %6s %10s %9s %9s %9s %7s%n",
+                "target", "conc", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+        for (String url : urls) {
+            run(client, url, levels[0], Math.min(requests, 100));
+            for (int level : levels) {
+                run(client, url, level, requests).print(url, level);
+            }
+        }
+    }
+
+    private static Result run(HttpClient client, String url, int concurrency, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", "application/xml")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            workers.add(pool.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) errors.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - t0;
+                }
+            }));
+        }
+        for (Future<?> worker : workers) worker.get();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        Arrays.sort(latencies);
+        return new Result(requests / (elapsed / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                errors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static SSLContext trustAll() throws Exception {
+        TrustManager[] trustAll = {new X509TrustManager() {
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        }};
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustAll, new SecureRandom());
+        return context;
+    }
+
+    private record Result(double throughput, double p50, double p95, double p99, int errors) {
+
+        void print(String url, int concurrency) {
+            System.out.printf("%-60s %6d %10.1f %9.1f %9.1f %9.1f %7d%n",
+                    url, concurrency, throughput, p50, p95, p99, errors);
+        }
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package itmo.ivank.soa.analytics;
+
+/**
+ * Count, sum and bounds of the non-null values of a column; {@code min} and {@code max} are {@code NaN}
+ * when there are none.
+ */
+public record ColumnStats(long count, double sum, double min, double max) {
+
+    static final ColumnStats EMPTY = new ColumnStats(0, 0, Double.NaN, Double.NaN);
+
+    ColumnStats merge(ColumnStats other) {
+        if (other.count == 0) return this;
+        if (count == 0) return other;
+        return new ColumnStats(count + other.count, sum + other.sum, Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+}
@@ -0,0 +1,96 @@
+package itmo.ivank.soa.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> int} map without boxing, for id to row lookups over millions of rows.
+ * Values must be non-negative; {@link #get} returns {@code -1} for absent keys.
+ */
+class LongIntMap {
+
+    private static final int FREE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIntMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    int get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (values[slot] == FREE) return -1;
+            if (keys[slot] == key) return values[slot];
+        }
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != FREE && keys[slot] != key) slot = (slot + 1) & mask;
+        if (values[slot] == FREE) {
+            if (++size > (mask + 1) * 3 / 4) {
+                rehash((mask + 1) * 2);
+                put(key, value);
+                return;
+            }
+            keys[slot] = key;
+        }
+        values[slot] = value;
+    }
+
+    int remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != FREE && keys[slot] != key) slot = (slot + 1) & mask;
+        int removed = values[slot];
+        if (removed == FREE) return -1;
+        size--;
+        // backward-shift the rest of the probe chain so lookups never stop at the freed slot early
+        int free = slot;
+        for (int next = (free + 1) & mask; values[next] != FREE; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        values[free] = FREE;
+        return removed;
+    }
+
+    void clear() {
+        Arrays.fill(values, FREE);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, FREE);
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * 3 / 4 < expectedSize) capacity <<= 1;
+        return capacity;
+    }
+
+}
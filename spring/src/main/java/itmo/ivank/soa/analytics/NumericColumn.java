@@ -0,0 +1,39 @@
+package itmo.ivank.soa.analytics;
+
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+
+import java.util.Arrays;
+
+public enum NumericColumn {
+
+    ANNUAL_TURNOVER("annualTurnover", "annual_turnover"),
+    COORDINATES_X("coordinates.x", "coordinates_x"),
+    COORDINATES_Y("coordinates.y", "coordinates_y"),
+    TOWN_X("officialAddress.town.x", "official_address_town_x"),
+    TOWN_Y("officialAddress.town.y", "official_address_town_y");
+
+    private final String field;
+    private final String sqlColumn;
+
+    NumericColumn(String field, String sqlColumn) {
+        this.field = field;
+        this.sqlColumn = sqlColumn;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    public String sqlColumn() {
+        return sqlColumn;
+    }
+
+    public static NumericColumn of(String field) {
+        for (NumericColumn column : values()) {
+            if (column.field.equals(field)) return column;
+        }
+        throw new InvalidSearchQueryException("Unknown numeric field " + field + ", expected one of "
+                + Arrays.stream(values()).map(NumericColumn::field).toList());
+    }
+
+}
@@ -0,0 +1,388 @@
+package itmo.ivank.soa.analytics;
+
+import itmo.ivank.soa.entity.OrganizationType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of the live organizations: one primitive array per numeric column, with {@code type} and
+ * town names dictionary-encoded. Rows are kept dense (a removed row is replaced by the last one), so scans
+ * run over plain array ranges, split into chunks processed in parallel.
+ * <p>
+ * Null floats are stored as {@code NaN} and null longs as {@link #NULL_LONG}. Queries are only meaningful once
+ * {@link #isReady()}; the store is filled by {@code OrganizationColumnsSync}.
+ */
+@Component
+public class OrganizationColumns {
+
+    public static final long NULL_LONG = Long.MIN_VALUE;
+    public static final int NO_TOWN = -1;
+
+    private static final OrganizationType[] TYPES = OrganizationType.values();
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntMap rows = new LongIntMap(INITIAL_CAPACITY);
+    private final List<String> townNames = new ArrayList<>();
+    private final Map<String, Integer> townCodes = new HashMap<>();
+
+    private volatile boolean ready;
+    private int size;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private float[] annualTurnover = new float[INITIAL_CAPACITY];
+    private long[] coordinatesX = new long[INITIAL_CAPACITY];
+    private float[] coordinatesY = new float[INITIAL_CAPACITY];
+    private float[] townX = new float[INITIAL_CAPACITY];
+    private long[] townY = new long[INITIAL_CAPACITY];
+    private byte[] type = new byte[INITIAL_CAPACITY];
+    private int[] town = new int[INITIAL_CAPACITY];
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public void upsert(long id, Float annualTurnover, Long coordinatesX, Float coordinatesY,
+                       Float townX, Long townY, OrganizationType type, String townName) {
+        lock.writeLock().lock();
+        try {
+            int row = rows.get(id);
+            if (row < 0) {
+                if (size == ids.length) grow(size * 2);
+                row = size++;
+                rows.put(id, row);
+                ids[row] = id;
+            }
+            this.annualTurnover[row] = annualTurnover != null ? annualTurnover : Float.NaN;
+            this.coordinatesX[row] = coordinatesX != null ? coordinatesX : NULL_LONG;
+            this.coordinatesY[row] = coordinatesY != null ? coordinatesY : Float.NaN;
+            this.townX[row] = townX != null ? townX : Float.NaN;
+            this.townY[row] = townY != null ? townY : NULL_LONG;
+            this.type[row] = (byte) type.ordinal();
+            this.town[row] = townName != null ? townCode(townName) : NO_TOWN;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rows.remove(id);
+            if (row < 0) return;
+            int last = --size;
+            if (row == last) return;
+            ids[row] = ids[last];
+            annualTurnover[row] = annualTurnover[last];
+            coordinatesX[row] = coordinatesX[last];
+            coordinatesY[row] = coordinatesY[last];
+            townX[row] = townX[last];
+            townY[row] = townY[last];
+            type[row] = type[last];
+            town[row] = town[last];
+            rows.put(ids[row], row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rows.clear();
+            townNames.clear();
+            townCodes.clear();
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<OrganizationType, Long> countByType() {
+        long[] counts;
+        lock.readLock().lock();
+        try {
+            counts = countCodes(type, TYPES.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<OrganizationType, Long> result = new LinkedHashMap<>();
+        for (OrganizationType t : TYPES) result.put(t, counts[t.ordinal()]);
+        return result;
+    }
+
+    /**
+     * Number of organizations per town name, without organizations that have no town.
+     */
+    public Map<String, Long> countByTown() {
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[townNames.size()];
+            for (long[] chunk : IntStream.range(0, chunks()).parallel()
+                    .mapToObj(c -> countTowns(c, counts.length)).toList()) {
+                for (int i = 0; i < counts.length; i++) counts[i] += chunk[i];
+            }
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) result.put(townNames.get(i), counts[i]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ColumnStats stats(NumericColumn column) {
+        lock.readLock().lock();
+        try {
+            return IntStream.range(0, chunks()).parallel()
+                    .mapToObj(c -> stats(column, from(c), to(c)))
+                    .reduce(ColumnStats.EMPTY, ColumnStats::merge);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts non-null values in {@code buckets} equal-width buckets over {@code [min, max]}; values outside the
+     * range are skipped and {@code max} itself falls into the last bucket.
+     */
+    public long[] histogram(NumericColumn column, int buckets, double min, double max) {
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[buckets];
+            for (long[] chunk : IntStream.range(0, chunks()).parallel()
+                    .mapToObj(c -> histogram(column, from(c), to(c), buckets, min, max)).toList()) {
+                for (int i = 0; i < buckets; i++) counts[i] += chunk[i];
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Continuous percentiles of the non-null values, interpolated like Postgres {@code percentile_cont};
+     * {@code NaN} when there are no values.
+     */
+    public double[] percentiles(NumericColumn column, double[] fractions) {
+        double[] values;
+        lock.readLock().lock();
+        try {
+            values = nonNullValues(column);
+        } finally {
+            lock.readLock().unlock();
+        }
+        double[] result = new double[fractions.length];
+        if (values.length == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        for (int i = 0; i < fractions.length; i++) {
+            double position = fractions[i] * (values.length - 1);
+            int lower = (int) Math.floor(position);
+            double low = select(values, lower);
+            if (position == lower) {
+                result[i] = low;
+            } else {
+                // after select() everything right of lower is >= low, so the next order statistic is their minimum
+                double high = Double.POSITIVE_INFINITY;
+                for (int k = lower + 1; k < values.length; k++) high = Math.min(high, values[k]);
+                result[i] = low + (position - lower) * (high - low);
+            }
+        }
+        return result;
+    }
+
+    private ColumnStats stats(NumericColumn column, int from, int to) {
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        if (isFloat(column)) {
+            float[] values = floats(column);
+            for (int i = from; i < to; i++) {
+                float v = values[i];
+                if (Float.isNaN(v)) continue;
+                count++;
+                sum += v;
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+        } else {
+            long[] values = longs(column);
+            for (int i = from; i < to; i++) {
+                long v = values[i];
+                if (v == NULL_LONG) continue;
+                count++;
+                sum += v;
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+        }
+        return count == 0 ? ColumnStats.EMPTY : new ColumnStats(count, sum, min, max);
+    }
+
+    private long[] histogram(NumericColumn column, int from, int to, int buckets, double min, double max) {
+        long[] counts = new long[buckets];
+        double scale = max > min ? buckets / (max - min) : 0;
+        if (isFloat(column)) {
+            float[] values = floats(column);
+            for (int i = from; i < to; i++) {
+                float v = values[i];
+                if (v >= min && v <= max) counts[Math.min(buckets - 1, (int) ((v - min) * scale))]++;
+            }
+        } else {
+            long[] values = longs(column);
+            for (int i = from; i < to; i++) {
+                long v = values[i];
+                if (v != NULL_LONG && v >= min && v <= max) counts[Math.min(buckets - 1, (int) ((v - min) * scale))]++;
+            }
+        }
+        return counts;
+    }
+
+    private double[] nonNullValues(NumericColumn column) {
+        double[] values = new double[size];
+        int n = 0;
+        if (isFloat(column)) {
+            float[] source = floats(column);
+            for (int i = 0; i < size; i++) {
+                if (!Float.isNaN(source[i])) values[n++] = source[i];
+            }
+        } else {
+            long[] source = longs(column);
+            for (int i = 0; i < size; i++) {
+                if (source[i] != NULL_LONG) values[n++] = source[i];
+            }
+        }
+        return n == size ? values : Arrays.copyOf(values, n);
+    }
+
+    // the caller holds the read lock, and has read codes under it, so that it covers every row up to size
+    private long[] countCodes(byte[] codes, int distinct) {
+        long[] counts = new long[distinct];
+        for (long[] chunk : IntStream.range(0, chunks()).parallel().mapToObj(c -> {
+            long[] local = new long[distinct];
+            for (int i = from(c), to = to(c); i < to; i++) local[codes[i]]++;
+            return local;
+        }).toList()) {
+            for (int i = 0; i < distinct; i++) counts[i] += chunk[i];
+        }
+        return counts;
+    }
+
+    private long[] countTowns(int chunk, int distinct) {
+        long[] local = new long[distinct];
+        for (int i = from(chunk), to = to(chunk); i < to; i++) {
+            if (town[i] != NO_TOWN) local[town[i]]++;
+        }
+        return local;
+    }
+
+    private int townCode(String name) {
+        Integer code = townCodes.get(name);
+        if (code != null) return code;
+        townNames.add(name);
+        townCodes.put(name, townNames.size() - 1);
+        return townNames.size() - 1;
+    }
+
+    private int chunks() {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private static int from(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    private int to(int chunk) {
+        return Math.min(size, (chunk + 1) * CHUNK_SIZE);
+    }
+
+    private static boolean isFloat(NumericColumn column) {
+        return column == NumericColumn.ANNUAL_TURNOVER || column == NumericColumn.COORDINATES_Y
+                || column == NumericColumn.TOWN_X;
+    }
+
+    private float[] floats(NumericColumn column) {
+        return switch (column) {
+            case ANNUAL_TURNOVER -> annualTurnover;
+            case COORDINATES_Y -> coordinatesY;
+            case TOWN_X -> townX;
+            default -> throw new IllegalArgumentException(column + " is not a float column");
+        };
+    }
+
+    private long[] longs(NumericColumn column) {
+        return switch (column) {
+            case COORDINATES_X -> coordinatesX;
+            case TOWN_Y -> townY;
+            default -> throw new IllegalArgumentException(column + " is not a long column");
+        };
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        annualTurnover = Arrays.copyOf(annualTurnover, capacity);
+        coordinatesX = Arrays.copyOf(coordinatesX, capacity);
+        coordinatesY = Arrays.copyOf(coordinatesY, capacity);
+        townX = Arrays.copyOf(townX, capacity);
+        townY = Arrays.copyOf(townY, capacity);
+        type = Arrays.copyOf(type, capacity);
+        town = Arrays.copyOf(town, capacity);
+    }
+
+    /**
+     * Rearranges {@code values} so that the element at {@code k} is the one a sort would put there,
+     * with no larger elements before it and no smaller ones after it.
+     */
+    private static double select(double[] values, int k) {
+        int left = 0;
+        int right = values.length - 1;
+        while (left < right) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    double t = values[i];
+                    values[i++] = values[j];
+                    values[j--] = t;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return values[k];
+    }
+
+}
@@ -0,0 +1,126 @@
+package itmo.ivank.soa.analytics;
+
+import itmo.ivank.soa.cache.EntityChangedEvent;
+import itmo.ivank.soa.cache.EntityKind;
+import itmo.ivank.soa.config.CacheProperties;
+import itmo.ivank.soa.repository.AnalyticsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loads {@link OrganizationColumns} in the background once the application is up and then applies the
+ * organization changes announced over the change channel. Changes arriving during a load are buffered and
+ * re-read afterwards; the columns are not {@linkplain OrganizationColumns#isReady() ready} meanwhile.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "soa.columnar", name = "enabled", havingValue = "true")
+public class OrganizationColumnsSync {
+
+    private final OrganizationColumns columns;
+    private final AnalyticsRepository analyticsRepository;
+
+    private final Object monitor = new Object();
+    private boolean loading;
+    private boolean reloadRequested;
+    private Set<Long> pending = new HashSet<>();
+
+    public OrganizationColumnsSync(OrganizationColumns columns, AnalyticsRepository analyticsRepository,
+                                   CacheProperties cacheProperties) {
+        if (!cacheProperties.enabled()) {
+            throw new IllegalStateException("soa.columnar.enabled requires soa.cache.enabled for change notifications");
+        }
+        this.columns = columns;
+        this.analyticsRepository = analyticsRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+    }
+
+    @EventListener
+    public void onChange(EntityChangedEvent event) {
+        if (event.kind() != EntityKind.ORGANIZATION) return;
+        if (event.ids() == null) {
+            reload();
+            return;
+        }
+        synchronized (monitor) {
+            if (loading) {
+                pending.addAll(event.ids());
+                return;
+            }
+        }
+        try {
+            analyticsRepository.loadColumns(columns, event.ids());
+        } catch (RuntimeException e) {
+            // the columns missed the change, so rebuild them in the background
+            log.warn("Could not apply organization changes to columns, reloading: {}", e.getMessage());
+            reload();
+        }
+    }
+
+    private void reload() {
+        synchronized (monitor) {
+            if (loading) {
+                reloadRequested = true;
+                return;
+            }
+            loading = true;
+        }
+        Thread loader = new Thread(this::load, "columnar-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        boolean full = true;
+        Set<Long> changed = null;
+        while (true) {
+            try {
+                if (full) {
+                    columns.setReady(false);
+                    long started = System.nanoTime();
+                    columns.clear();
+                    analyticsRepository.loadColumns(columns, null);
+                    log.info("Loaded {} organizations into columns in {} ms",
+                            columns.count(), (System.nanoTime() - started) / 1_000_000);
+                } else {
+                    analyticsRepository.loadColumns(columns, changed);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not load organization columns, analytics fall back to SQL: {}", e.getMessage());
+                synchronized (monitor) {
+                    loading = false;
+                    reloadRequested = false;
+                    pending = new HashSet<>();
+                }
+                return;
+            }
+            synchronized (monitor) {
+                if (reloadRequested) {
+                    reloadRequested = false;
+                    pending = new HashSet<>();
+                    full = true;
+                    continue;
+                }
+                if (pending.isEmpty()) {
+                    loading = false;
+                    columns.setReady(true);
+                    return;
+                }
+                changed = pending;
+                pending = new HashSet<>();
+                full = false;
+            }
+        }
+    }
+
+}
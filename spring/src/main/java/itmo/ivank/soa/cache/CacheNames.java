@@ -0,0 +1,13 @@
+package itmo.ivank.soa.cache;
+
+public final class CacheNames {
+
+    public static final String ORGANIZATIONS = "organizations";
+    public static final String EMPLOYEES = "employees";
+    public static final String TURNOVER = "turnover";
+    public static final String TYPE_COUNTS = "typeCounts";
+
+    private CacheNames() {
+    }
+
+}
@@ -0,0 +1,111 @@
+package itmo.ivank.soa.cache;
+
+import itmo.ivank.soa.config.CacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Keeps a dedicated connection to the primary listening on {@code soa.cache.channel}. Every change announced
+ * by any node is republished as an {@link EntityChangedEvent} and evicted from local caches. Caches are cleared
+ * whenever the connection is (re)established, since notifications sent while it was down are lost; after a
+ * reconnect, listeners are told that every entity may have changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "soa.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheProperties properties;
+    private final LocalCaches localCaches;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Override
+    public void start() {
+        if (!properties.channel().matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid notification channel " + properties.channel());
+        }
+        running = true;
+        thread = new Thread(this::listen, "change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.channel());
+                }
+                localCaches.clear();
+                if (reconnect) {
+                    for (EntityKind kind : EntityKind.values()) eventPublisher.publishEvent(new EntityChangedEvent(kind, null));
+                }
+                log.info("Listening for changes on {}", properties.channel());
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        var change = EntityChangedEvent.decode(notification.getParameter());
+                        if (change == null) {
+                            log.warn("Ignoring malformed change notification '{}'", notification.getParameter());
+                            continue;
+                        }
+                        // listeners first, so that caches refilled after the eviction see their updates
+                        try {
+                            eventPublisher.publishEvent(change);
+                        } catch (RuntimeException e) {
+                            // a failing listener must neither stop the eviction nor end the listen loop
+                            log.warn("Change listener failed on a {} change", change.kind(), e);
+                        }
+                        localCaches.evict(change.kind(), change.ids());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                reconnect = true;
+                localCaches.clear();
+                log.warn("Change listener connection lost, reconnecting in {}: {}",
+                        properties.reconnectDelay(), e.getMessage());
+                try {
+                    Thread.sleep(properties.reconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+}
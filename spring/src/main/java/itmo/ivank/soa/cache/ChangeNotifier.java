@@ -0,0 +1,68 @@
+package itmo.ivank.soa.cache;
+
+import itmo.ivank.soa.config.CacheProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Announces changed entities on {@code soa.cache.channel}. Inside a transaction the notification is queued on
+ * its connection, so Postgres delivers it to the listening nodes only if and when the transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeNotifier {
+
+    // Postgres rejects payloads of 8000 bytes and more
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    // every id takes at least a digit and a comma, so more of them never fit
+    private static final int MAX_IDS = MAX_PAYLOAD_LENGTH / 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalCaches localCaches;
+    private final CacheProperties properties;
+
+    public void publish(EntityKind kind, Long id) {
+        publish(kind, List.of(id));
+    }
+
+    public void publish(EntityKind kind, Collection<Long> ids) {
+        if (!properties.enabled() || ids.isEmpty()) return;
+        send(kind, ids.size() > MAX_IDS ? null : ids);
+    }
+
+    public void publish(EntityKind kind, long[] ids) {
+        if (!properties.enabled() || ids.length == 0) return;
+        // counted before boxing, as a batch may hold millions of ids that would only be encoded to be dropped
+        send(kind, ids.length > MAX_IDS ? null : Arrays.stream(ids).boxed().toList());
+    }
+
+    private void send(EntityKind kind, Collection<Long> ids) {
+        String payload = new EntityChangedEvent(kind, ids).encode();
+        if (payload.length() > MAX_PAYLOAD_LENGTH) {
+            ids = null;
+            payload = new EntityChangedEvent(kind, null).encode();
+        }
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, properties.channel(), payload);
+
+        // the listener evicts as well, but this node's own client should not wait for the round trip
+        Collection<Long> changed = ids;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localCaches.evict(kind, changed);
+                }
+            });
+        } else {
+            localCaches.evict(kind, changed);
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package itmo.ivank.soa.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Entities of {@code kind} changed on some node; {@code ids} is {@code null} when any of them may have changed.
+ * On the wire it is encoded as {@code KIND:id,id,...} or {@code KIND:*}.
+ */
+public record EntityChangedEvent(EntityKind kind, Collection<Long> ids) {
+
+    private static final String ALL = "*";
+
+    public static EntityChangedEvent decode(String change) {
+        int separator = change.indexOf(':');
+        try {
+            EntityKind kind = EntityKind.valueOf(change.substring(0, separator));
+            String ids = change.substring(separator + 1);
+            return new EntityChangedEvent(kind,
+                    ALL.equals(ids) ? null : Arrays.stream(ids.split(",")).map(Long::valueOf).toList());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        if (ids == null) return kind + ":" + ALL;
+        StringBuilder change = new StringBuilder(kind.name()).append(':');
+        for (Long id : ids) {
+            if (change.charAt(change.length() - 1) != ':') change.append(',');
+            change.append(id);
+        }
+        return change.toString();
+    }
+
+}
@@ -0,0 +1,6 @@
+package itmo.ivank.soa.cache;
+
+public enum EntityKind {
+    ORGANIZATION,
+    EMPLOYEE
+}
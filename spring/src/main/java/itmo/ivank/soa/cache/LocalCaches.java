@@ -0,0 +1,50 @@
+package itmo.ivank.soa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Evicts this node's cached reads affected by a change; {@code null} ids stand for every entity of the kind.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalCaches {
+
+    private final CacheManager cacheManager;
+
+    public void evict(EntityKind kind, Collection<Long> ids) {
+        switch (kind) {
+            case ORGANIZATION -> {
+                evict(CacheNames.ORGANIZATIONS, ids);
+                // employees embed their organization, and the dashboard values are computed over all of them
+                clear(CacheNames.EMPLOYEES);
+                clear(CacheNames.TURNOVER);
+                clear(CacheNames.TYPE_COUNTS);
+            }
+            case EMPLOYEE -> evict(CacheNames.EMPLOYEES, ids);
+        }
+    }
+
+    public void clear() {
+        cacheManager.getCacheNames().forEach(this::clear);
+    }
+
+    private void evict(String name, Collection<Long> ids) {
+        if (ids == null) {
+            clear(name);
+            return;
+        }
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) ids.forEach(cache::evict);
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) cache.clear();
+    }
+
+}
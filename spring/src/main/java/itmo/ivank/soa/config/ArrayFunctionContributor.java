@@ -0,0 +1,25 @@
+package itmo.ivank.soa.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code any_of(value, array)}, rendered as {@code value = any(array)}, so that a lookup by an array of
+ * ids binds one parameter and can use the index on the value. The built-in {@code array_contains} renders as
+ * {@code array @> array[value]}, which scans.
+ */
+public class ArrayFunctionContributor implements FunctionContributor {
+
+    public static final String ANY_OF = "any_of";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        var types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+        contributions.getFunctionRegistry().patternDescriptorBuilder(ANY_OF, "(?1 = any(?2))")
+                .setExactArgumentCount(2)
+                .setInvariantType(types.resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+
+}
@@ -0,0 +1,14 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "soa.batch")
+public record BatchProperties(
+        @DefaultValue("1000") int upsertChunkSize,
+        @DefaultValue("1000") int restoreChunkSize,
+        @DefaultValue("10000") int deleteChunkSize,
+        @DefaultValue("500") int streamChunkSize,
+        @DefaultValue("1000") int maxGetIds
+) {
+}
@@ -0,0 +1,37 @@
+package itmo.ivank.soa.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import itmo.ivank.soa.cache.CacheNames;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * A read that loaded its value before a change and stores it after the eviction keeps a stale entry, so
+     * entries also expire after {@code soa.cache.time-to-live}.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties) {
+        var cacheManager = new CaffeineCacheManager(
+                CacheNames.ORGANIZATIONS, CacheNames.EMPLOYEES, CacheNames.TURNOVER, CacheNames.TYPE_COUNTS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(properties.timeToLive())
+                .maximumSize(properties.maximumSize())
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+
+    @Configuration
+    @EnableCaching
+    @ConditionalOnProperty(prefix = "soa.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class CachingConfig {
+    }
+
+}
@@ -0,0 +1,16 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "soa.cache")
+public record CacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("soa_changes") String channel,
+        @DefaultValue("5s") Duration reconnectDelay,
+        @DefaultValue("1m") Duration timeToLive,
+        @DefaultValue("10000") long maximumSize
+) {
+}
@@ -0,0 +1,10 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "soa.columnar")
+public record ColumnarProperties(
+        @DefaultValue("false") boolean enabled
+) {
+}
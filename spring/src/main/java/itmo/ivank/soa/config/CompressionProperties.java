@@ -0,0 +1,15 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "soa.compression")
+public record CompressionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2048") int minResponseSize,
+        @DefaultValue("268435456") long maxInflatedRequestSize,
+        @DefaultValue({"application/xml", "text/xml"}) List<String> mimeTypes
+) {
+}
@@ -0,0 +1,14 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "soa.dashboard")
+public record DashboardProperties(
+        @DefaultValue("2s") Duration interval,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("30m") Duration emitterTimeout
+) {
+}
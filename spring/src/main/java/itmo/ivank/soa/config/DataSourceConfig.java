@@ -0,0 +1,71 @@
+package itmo.ivank.soa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import itmo.ivank.soa.datasource.ReadYourWrites;
+import itmo.ivank.soa.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource with one that routes read-only transactions to {@code soa.replica.replicas}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "soa.replica", name = "enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties properties) {
+        return new ReadYourWrites(properties.readYourWritesWindow());
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties properties,
+                                                             ReadYourWrites readYourWrites) {
+        List<DataSource> replicas = properties.replicas().stream()
+                .map(replica -> replica(dataSourceProperties, properties, replica))
+                .toList();
+        int validationTimeout = (int) Math.max(1, properties.connectionTimeout().toSeconds());
+        var dataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, validationTimeout);
+        // replicas start as down, so probe them before the first read instead of waiting for the health checker
+        dataSource.checkReplicas();
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static DataSource replica(DataSourceProperties dataSourceProperties, ReplicaProperties properties,
+                                      ReplicaProperties.Replica replica) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica-" + properties.replicas().indexOf(replica));
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(replica.url());
+        dataSource.setUsername(replica.username() != null ? replica.username() : dataSourceProperties.determineUsername());
+        dataSource.setPassword(replica.password() != null ? replica.password() : dataSourceProperties.determinePassword());
+        dataSource.setReadOnly(true);
+        dataSource.setConnectionTimeout(properties.connectionTimeout().toMillis());
+        // a replica that is down at startup must not prevent the application from starting
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+}
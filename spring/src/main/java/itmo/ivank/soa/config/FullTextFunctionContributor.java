@@ -0,0 +1,78 @@
+package itmo.ivank.soa.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.ArgumentTypesValidator;
+import org.hibernate.query.sqm.produce.function.FunctionParameterType;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Registers {@code organization_search_match(o.id, tsquery)} and {@code organization_search_rank(o.id, tsquery)},
+ * which render against the unmapped {@code search_vector} column of the organization the id belongs to.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH = "organization_search_match";
+    public static final String RANK = "organization_search_rank";
+
+    private static final String VECTOR_COLUMN = "search_vector";
+    private static final String TEXT_SEARCH_CONFIG = "simple";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        var types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+        var registry = contributions.getFunctionRegistry();
+        registry.register(MATCH, new SearchFunction(MATCH, types.resolve(StandardBasicTypes.BOOLEAN),
+                "(", " @@ to_tsquery('" + TEXT_SEARCH_CONFIG + "', ", "))"));
+        registry.register(RANK, new SearchFunction(RANK, types.resolve(StandardBasicTypes.FLOAT),
+                "ts_rank(", ", to_tsquery('" + TEXT_SEARCH_CONFIG + "', ", "))"));
+    }
+
+    private static class SearchFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String prefix;
+        private final String infix;
+        private final String suffix;
+
+        SearchFunction(String name, BasicType<?> type, String prefix, String infix, String suffix) {
+            super(name, new ArgumentTypesValidator(StandardArgumentsValidators.exactly(2),
+                            FunctionParameterType.INTEGER, FunctionParameterType.STRING),
+                    StandardFunctionReturnTypeResolvers.invariant(type), null);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            ColumnReference id = arguments.get(0) instanceof Expression expression ? expression.getColumnReference() : null;
+            if (id == null) {
+                throw new IllegalArgumentException(getName() + " expects the organization id column as its first argument");
+            }
+            sqlAppender.appendSql(prefix);
+            if (id.getQualifier() != null) {
+                sqlAppender.appendSql(id.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql(VECTOR_COLUMN);
+            sqlAppender.appendSql(infix);
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(suffix);
+        }
+
+    }
+
+}
@@ -0,0 +1,12 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "soa.lock")
+public record LockProperties(
+        @DefaultValue("5s") Duration waitTimeout
+) {
+}
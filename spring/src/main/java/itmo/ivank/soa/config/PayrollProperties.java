@@ -0,0 +1,13 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "soa.payroll")
+public record PayrollProperties(
+        @DefaultValue("true") boolean reconcileEnabled,
+        @DefaultValue("10m") Duration reconcileInterval
+) {
+}
@@ -0,0 +1,25 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "soa.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("2s") Duration connectionTimeout,
+        @DefaultValue("5s") Duration readYourWritesWindow,
+        @DefaultValue("X-Client-Id") String clientHeader
+) {
+
+    /**
+     * Connection settings of a replica; a missing username or password is taken from {@code spring.datasource}.
+     */
+    public record Replica(String url, String username, String password) {
+    }
+
+}
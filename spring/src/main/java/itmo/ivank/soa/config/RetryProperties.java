@@ -0,0 +1,14 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "soa.retry")
+public record RetryProperties(
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("20ms") Duration initialBackoff,
+        @DefaultValue("1s") Duration maxBackoff
+) {
+}
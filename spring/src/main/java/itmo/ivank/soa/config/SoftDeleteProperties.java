@@ -0,0 +1,14 @@
+package itmo.ivank.soa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "soa.soft-delete")
+public record SoftDeleteProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1h") Duration retention,
+        @DefaultValue("1000") int purgeBatchSize
+) {
+}
@@ -0,0 +1,114 @@
+package itmo.ivank.soa.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.ArgumentTypesValidator;
+import org.hibernate.query.sqm.produce.function.FunctionParameterType;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers functions over the GiST-indexed {@code *_point} columns, one set per point field. The first
+ * argument of each is the organization id, and the function renders against the point column of that row:
+ * <ul>
+ *     <li>{@code <column>_in_box(o.id, minX, minY, maxX, maxY)}</li>
+ *     <li>{@code <column>_in_circle(o.id, centerX, centerY, radius)}</li>
+ *     <li>{@code <column>_distance(o.id, pointX, pointY)}</li>
+ * </ul>
+ * Use {@link #name(String, String)} to get the function for a field.
+ */
+public class SpatialFunctionContributor implements FunctionContributor {
+
+    public static final String IN_BOX = "in_box";
+    public static final String IN_CIRCLE = "in_circle";
+    public static final String DISTANCE = "distance";
+
+    /**
+     * The point columns by the path of the embeddable they are generated from.
+     */
+    public static final Map<String, String> POINT_COLUMNS = Map.of(
+            "coordinates", "coordinates_point",
+            "officialAddress.town", "official_address_town_point");
+
+    public static String name(String function, String field) {
+        return POINT_COLUMNS.get(field) + "_" + function;
+    }
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        var types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+        var registry = contributions.getFunctionRegistry();
+        for (var field : POINT_COLUMNS.keySet()) {
+            String column = POINT_COLUMNS.get(field);
+            registry.register(name(IN_BOX, field), new PointFunction(name(IN_BOX, field), column,
+                    types.resolve(StandardBasicTypes.BOOLEAN),
+                    "(", " <@ box(point(", ", ", "), point(", ", ", ")))"));
+            registry.register(name(IN_CIRCLE, field), new PointFunction(name(IN_CIRCLE, field), column,
+                    types.resolve(StandardBasicTypes.BOOLEAN),
+                    "(", " <@ circle(point(", ", ", "), ", "))"));
+            registry.register(name(DISTANCE, field), new PointFunction(name(DISTANCE, field), column,
+                    types.resolve(StandardBasicTypes.DOUBLE),
+                    "(", " <-> point(", ", ", "))"));
+        }
+    }
+
+    private static class PointFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String column;
+        private final String[] segments;
+
+        /**
+         * @param segments SQL around the point column and the remaining arguments: one before the column
+         *                 and one after it and after every argument
+         */
+        PointFunction(String name, String column, BasicType<?> type, String... segments) {
+            super(name, new ArgumentTypesValidator(StandardArgumentsValidators.exactly(segments.length - 1),
+                            argumentTypes(segments.length - 1)),
+                    StandardFunctionReturnTypeResolvers.invariant(type), null);
+            this.column = column;
+            this.segments = segments;
+        }
+
+        private static FunctionParameterType[] argumentTypes(int count) {
+            var types = new FunctionParameterType[count];
+            Arrays.fill(types, FunctionParameterType.NUMERIC);
+            types[0] = FunctionParameterType.INTEGER;
+            return types;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            ColumnReference id = arguments.get(0) instanceof Expression expression ? expression.getColumnReference() : null;
+            if (id == null) {
+                throw new IllegalArgumentException(getName() + " expects the organization id column as its first argument");
+            }
+            sqlAppender.appendSql(segments[0]);
+            if (id.getQualifier() != null) {
+                sqlAppender.appendSql(id.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql(column);
+            sqlAppender.appendSql(segments[1]);
+            for (int i = 1; i < arguments.size(); i++) {
+                arguments.get(i).accept(walker);
+                sqlAppender.appendSql(segments[i + 1]);
+            }
+        }
+
+    }
+
+}
@@ -1,15 +1,28 @@
 package itmo.ivank.soa.controller;
 
+import itmo.ivank.soa.dto.DeleteResult;
+import itmo.ivank.soa.dto.EmployeeQuery;
 import itmo.ivank.soa.dto.EmployeeRequest;
+import itmo.ivank.soa.dto.EmployeesByIds;
 import itmo.ivank.soa.dto.EmployeesList;
 import itmo.ivank.soa.entity.Employee;
+import itmo.ivank.soa.filter.CompressionFilter;
 import itmo.ivank.soa.service.EmployeeService;
+import itmo.ivank.soa.service.EmployeeStreamingService;
+import itmo.ivank.soa.service.EmployeeStreamingService.Operation;
+import itmo.ivank.soa.util.FieldSet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,6 +31,7 @@ import java.util.List;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeStreamingService employeeStreamingService;
 
     @PostMapping(consumes = MediaType.APPLICATION_XML_VALUE,
             produces = MediaType.APPLICATION_XML_VALUE)
@@ -32,8 +46,9 @@ public class EmployeeController {
     }
 
     @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_XML_VALUE)
-    public Employee getEmployee(@PathVariable Long id) {
-        return employeeService.getById(id);
+    public MappingJacksonValue getEmployee(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        var fieldSet = FieldSet.employee(fields);
+        return FieldSet.render(fieldSet, employeeService.getById(id, fieldSet));
     }
 
     @DeleteMapping(path = "/{id}")
@@ -41,6 +56,21 @@ public class EmployeeController {
         employeeService.deleteById(id);
     }
 
+    @PostMapping(path = "/query", consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
+    public MappingJacksonValue getFilteredEmployees(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") @Max(EmployeeService.MAX_PAGE_SIZE) Integer size,
+                                                    @RequestParam(required = false) String fields,
+                                                    @RequestBody @Valid @NotNull EmployeeQuery query) {
+        var fieldSet = FieldSet.employee(fields);
+        return FieldSet.render(fieldSet, employeeService.query(query, cursor, size, fieldSet));
+    }
+
+    @PostMapping(path = "/batch/get", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public EmployeesByIds getEmployees(@RequestBody @NotNull long[] ids) {
+        return employeeService.getByIds(ids);
+    }
+
     @PostMapping(path = "/batch/create", consumes = MediaType.APPLICATION_XML_VALUE,
             produces = MediaType.APPLICATION_XML_VALUE)
     public EmployeesList createBatch(@RequestBody @Valid @NotNull List<EmployeeRequest> employees) {
@@ -53,9 +83,36 @@ public class EmployeeController {
         return employeeService.updateBatch(employees);
     }
 
-    @PostMapping(path = "/batch/delete", consumes = MediaType.APPLICATION_XML_VALUE)
-    public void deleteBatch(@RequestBody @Valid @NotNull List<Long> ids) {
-        employeeService.deleteBatch(ids);
+    @PostMapping(path = "/batch/delete", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public DeleteResult deleteBatch(@RequestBody @NotNull long[] ids) {
+        return employeeService.deleteBatch(ids);
+    }
+
+    @PostMapping(path = "/batch/create/stream", consumes = MediaType.APPLICATION_XML_VALUE)
+    public void createBatchStream(InputStream body, @RequestParam(required = false) Integer chunkSize,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        stream(Operation.CREATE, body, chunkSize, request, response);
+    }
+
+    @PostMapping(path = "/batch/update/stream", consumes = MediaType.APPLICATION_XML_VALUE)
+    public void updateBatchStream(InputStream body, @RequestParam(required = false) Integer chunkSize,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        stream(Operation.UPDATE, body, chunkSize, request, response);
+    }
+
+    @PostMapping(path = "/batch/delete/stream", consumes = MediaType.APPLICATION_XML_VALUE)
+    public void deleteBatchStream(InputStream body, @RequestParam(required = false) Integer chunkSize,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        stream(Operation.DELETE, body, chunkSize, request, response);
+    }
+
+    private void stream(Operation operation, InputStream body, Integer chunkSize,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_XML_VALUE);
+        // every chunk result reaches the client as soon as it is written
+        CompressionFilter.flushThrough(request);
+        employeeStreamingService.process(operation, body, response.getOutputStream(), chunkSize);
     }
 
 }
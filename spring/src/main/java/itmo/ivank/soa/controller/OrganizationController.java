@@ -2,12 +2,18 @@ package itmo.ivank.soa.controller;
 
 import itmo.ivank.soa.dto.*;
 import itmo.ivank.soa.entity.Organization;
+import itmo.ivank.soa.service.AnalyticsService;
+import itmo.ivank.soa.service.DashboardStatsService;
 import itmo.ivank.soa.service.OrganizationService;
+import itmo.ivank.soa.util.FieldSet;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -17,11 +23,15 @@ import java.util.List;
 public class OrganizationController {
 
     private final OrganizationService organizationService;
+    private final DashboardStatsService dashboardStatsService;
+    private final AnalyticsService analyticsService;
 
     @GetMapping(produces = MediaType.APPLICATION_XML_VALUE)
-    public OrganizationsPage getAllOrganizations(@RequestParam(defaultValue = "1") @Valid Integer page,
-                                                 @RequestParam(defaultValue = "20") @Valid Integer size) {
-        return organizationService.getAll(page, size);
+    public MappingJacksonValue getAllOrganizations(@RequestParam(defaultValue = "1") @Valid Integer page,
+                                                   @RequestParam(defaultValue = "20") @Valid Integer size,
+                                                   @RequestParam(required = false) String fields) {
+        var fieldSet = FieldSet.organization(fields);
+        return FieldSet.render(fieldSet, organizationService.getAll(page, size, fieldSet));
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
@@ -29,16 +39,67 @@ public class OrganizationController {
         return organizationService.create(request);
     }
 
+    @PostMapping(path = "/batch/upsert", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public UpsertResponse upsertOrganizations(@RequestBody @NotNull List<OrganizationRequest> organizations) {
+        return organizationService.upsertBatch(organizations);
+    }
+
+    @PostMapping(path = "/batch/get", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public OrganizationsByIds getOrganizations(@RequestBody @NotNull long[] ids) {
+        return organizationService.getByIds(ids);
+    }
+
     @PostMapping(path = "/query", consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
-    public OrganizationsPage getFilteredOrganizations(@RequestParam(defaultValue = "1") @Valid Integer page,
-                                                      @RequestParam(defaultValue = "20") @Valid Integer size,
-                                                      @RequestBody @Valid @NotNull OrganizationQuery query) {
-        return organizationService.getFiltered(page, size, query);
+    public MappingJacksonValue getFilteredOrganizations(@RequestParam(defaultValue = "1") @Valid Integer page,
+                                                        @RequestParam(defaultValue = "20") @Valid Integer size,
+                                                        @RequestParam(required = false) String fields,
+                                                        @RequestBody @Valid @NotNull OrganizationQuery query) {
+        var fieldSet = FieldSet.organization(fields);
+        return FieldSet.render(fieldSet, organizationService.getFiltered(page, size, query, fieldSet));
+    }
+
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_XML_VALUE)
+    public MappingJacksonValue searchOrganizations(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "1") @Valid Integer page,
+                                                   @RequestParam(defaultValue = "20") @Valid Integer size,
+                                                   @RequestParam(required = false) String fields) {
+        var fieldSet = FieldSet.organization(fields);
+        return FieldSet.render(fieldSet, organizationService.search(q, page, size, null, fieldSet));
+    }
+
+    @PostMapping(path = "/search", consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
+    public MappingJacksonValue searchFilteredOrganizations(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "1") @Valid Integer page,
+                                                           @RequestParam(defaultValue = "20") @Valid Integer size,
+                                                           @RequestParam(required = false) String fields,
+                                                           @RequestBody @Valid @NotNull OrganizationQuery query) {
+        var fieldSet = FieldSet.organization(fields);
+        return FieldSet.render(fieldSet, organizationService.search(q, page, size, query, fieldSet));
+    }
+
+    @PostMapping(path = "/spatial", consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
+    public MappingJacksonValue getOrganizationsByLocation(@RequestParam(defaultValue = "1") @Valid Integer page,
+                                                          @RequestParam(defaultValue = "20") @Valid Integer size,
+                                                          @RequestParam(required = false) String fields,
+                                                          @RequestBody @Valid @NotNull OrganizationSpatialQuery query) {
+        var fieldSet = FieldSet.organization(fields);
+        return FieldSet.render(fieldSet, organizationService.spatial(query, page, size, fieldSet));
+    }
+
+    @PostMapping(path = "/aggregate", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public AggregateResponse aggregateOrganizations(@RequestParam(defaultValue = "1000") Integer limit,
+                                                    @RequestBody @Valid @NotNull OrganizationAggregateQuery query) {
+        return organizationService.aggregate(query, limit);
     }
 
     @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_XML_VALUE)
-    public Organization getOrganization(@PathVariable @Valid Long id) {
-        return organizationService.getById(id);
+    public MappingJacksonValue getOrganization(@PathVariable @Valid Long id,
+                                               @RequestParam(required = false) String fields) {
+        var fieldSet = FieldSet.organization(fields);
+        return FieldSet.render(fieldSet, organizationService.getById(id, fieldSet));
     }
 
     @PutMapping(path = "/{id}", consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
@@ -52,8 +113,31 @@ public class OrganizationController {
     }
 
     @GetMapping(path = "/{id}/employees", produces = MediaType.APPLICATION_XML_VALUE)
-    public EmployeesList getOrganizationEmployees(@PathVariable @Valid Long id) {
-        return organizationService.getEmployees(id);
+    public MappingJacksonValue getOrganizationEmployees(@PathVariable @Valid Long id,
+                                                        @RequestParam(required = false) String fields) {
+        var fieldSet = FieldSet.employee(fields);
+        return FieldSet.render(fieldSet, organizationService.getEmployees(id, fieldSet));
+    }
+
+    @PostMapping(path = "/{acquirerId}/acquire/{acquiredId}", produces = MediaType.APPLICATION_XML_VALUE)
+    public Acquiring acquireOrganization(@PathVariable Long acquirerId, @PathVariable Long acquiredId) {
+        return organizationService.acquire(acquirerId, acquiredId);
+    }
+
+    @PostMapping(path = "/{id}/turnover", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public Organization addTurnover(@PathVariable Long id, @RequestBody @Valid @NotNull TurnoverIncrement increment) {
+        return organizationService.addTurnover(id, increment);
+    }
+
+    @PostMapping(path = "/{id}/fire", produces = MediaType.APPLICATION_XML_VALUE)
+    public DeleteResult fireOrganizationEmployees(@PathVariable Long id) {
+        return organizationService.fireAll(id);
+    }
+
+    @GetMapping(path = "/{id}/employees/stats", produces = MediaType.APPLICATION_XML_VALUE)
+    public PayrollStats getOrganizationPayroll(@PathVariable @Valid Long id) {
+        return organizationService.getPayroll(id);
     }
 
     @GetMapping(path = "/turnover", produces = MediaType.APPLICATION_XML_VALUE)
@@ -66,6 +150,38 @@ public class OrganizationController {
         return organizationService.getOrganizationTypesCount();
     }
 
+    @GetMapping(path = "/analytics/summary", produces = MediaType.APPLICATION_XML_VALUE)
+    public ColumnSummary getColumnSummary(@RequestParam String field) {
+        return analyticsService.summary(field);
+    }
+
+    @GetMapping(path = "/analytics/histogram", produces = MediaType.APPLICATION_XML_VALUE)
+    public Histogram getHistogram(@RequestParam String field,
+                                  @RequestParam(defaultValue = "10") Integer buckets,
+                                  @RequestParam(required = false) Double min,
+                                  @RequestParam(required = false) Double max) {
+        return analyticsService.histogram(field, buckets, min, max);
+    }
+
+    @GetMapping(path = "/analytics/percentiles", produces = MediaType.APPLICATION_XML_VALUE)
+    public Percentiles getPercentiles(@RequestParam String field,
+                                      @RequestParam(name = "p", defaultValue = "0.5") List<Double> fractions) {
+        return analyticsService.percentiles(field, fractions);
+    }
+
+    @GetMapping(path = "/analytics/towns", produces = MediaType.APPLICATION_XML_VALUE)
+    public TownCountResponse getTownCounts() {
+        return analyticsService.countByTown();
+    }
+
+    @GetMapping(path = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboardStats() {
+        // nginx buffers proxied responses unless told otherwise, which would hold the events back
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(dashboardStatsService.subscribe());
+    }
+
     @PostMapping(path = "/lt-full-name", consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
     public OrganizationsPage getOrganizationsLessThanFullName(@RequestBody @NotNull FullNameValue fullNameValue,
                                                               @RequestParam(defaultValue = "1") @Valid Integer page,
@@ -73,10 +189,24 @@ public class OrganizationController {
         return organizationService.getOrganizationsLessThanFullName(fullNameValue.value(), page, size);
     }
 
+    @PostMapping(path = "/lt-full-name/keyset", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public OrganizationsSlice getOrganizationsLessThanFullNameAfter(@RequestBody @NotNull FullNameValue fullNameValue,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "20") @Valid Integer size) {
+        return organizationService.getOrganizationsLessThanFullName(fullNameValue.value(), cursor, size);
+    }
+
     @PostMapping(path = "/compensate", consumes = MediaType.APPLICATION_XML_VALUE,
             produces = MediaType.APPLICATION_XML_VALUE)
     public Organization compensateOrganization(@RequestBody @Valid @NotNull OrganizationRequest request) {
         return organizationService.createRaw(request);
     }
 
+    @PostMapping(path = "/compensate/batch", consumes = MediaType.APPLICATION_XML_VALUE,
+            produces = MediaType.APPLICATION_XML_VALUE)
+    public CompensationResponse compensateOrganizations(@RequestBody @Valid @NotNull List<OrganizationCompensation> compensations) {
+        return organizationService.compensateBatch(compensations);
+    }
+
 }
@@ -0,0 +1,47 @@
+package itmo.ivank.soa.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each client last committed a write, so that its reads within {@code window}
+ * are served by the primary instead of a possibly lagging replica.
+ */
+public class ReadYourWrites {
+
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void bind(String client) {
+        CLIENT.set(client);
+    }
+
+    public void unbind() {
+        CLIENT.remove();
+    }
+
+    public void recordWrite() {
+        String client = CLIENT.get();
+        if (client != null) lastWrites.put(client, System.nanoTime());
+    }
+
+    public boolean requiresPrimary() {
+        String client = CLIENT.get();
+        if (client == null) return false;
+        Long lastWrite = lastWrites.get(client);
+        return lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    public void expire() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+
+}
@@ -0,0 +1,12 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import itmo.ivank.soa.entity.Organization;
+
+@JacksonXmlRootElement(localName = "acquiring")
+public record Acquiring(
+        Organization acquirerOrganization,
+        Organization acquiredOrganization,
+        Integer numberOfEmployeesMoved
+) {
+}
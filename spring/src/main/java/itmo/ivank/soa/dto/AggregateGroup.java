@@ -0,0 +1,16 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+
+import java.util.List;
+
+public record AggregateGroup(
+        @JacksonXmlElementWrapper(localName = "keys")
+        @JacksonXmlProperty(localName = "key")
+        List<GroupKey> keys,
+        @JacksonXmlElementWrapper(localName = "values")
+        @JacksonXmlProperty(localName = "value")
+        List<AggregateValue> values
+) {
+}
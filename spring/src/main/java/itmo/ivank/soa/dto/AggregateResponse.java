@@ -0,0 +1,16 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "aggregateResponse")
+public record AggregateResponse(
+        @JacksonXmlElementWrapper(localName = "groups")
+        @JacksonXmlProperty(localName = "group")
+        List<AggregateGroup> groups,
+        Boolean truncated
+) {
+}
@@ -0,0 +1,12 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+@JacksonXmlRootElement(localName = "summary")
+public record BatchSummary(
+        Integer chunks,
+        Long committed,
+        Long rolledBack,
+        Boolean complete
+) {
+}
@@ -0,0 +1,13 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+@JacksonXmlRootElement(localName = "chunk")
+public record ChunkResult(
+        Integer index,
+        Long firstItem,
+        Integer size,
+        ChunkStatus status,
+        String message
+) {
+}
@@ -0,0 +1,8 @@
+package itmo.ivank.soa.dto;
+
+public enum ChunkStatus {
+
+    COMMITTED,
+    ROLLED_BACK
+
+}
@@ -0,0 +1,14 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+@JacksonXmlRootElement(localName = "columnSummary")
+public record ColumnSummary(
+        String field,
+        Long count,
+        Double sum,
+        Double min,
+        Double max,
+        Double avg
+) {
+}
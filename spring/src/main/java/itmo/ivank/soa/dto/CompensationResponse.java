@@ -0,0 +1,19 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "compensationResponse")
+public record CompensationResponse(
+        @JacksonXmlElementWrapper(localName = "restored")
+        @JacksonXmlProperty(localName = "restoredId")
+        List<Long> restored,
+        @JacksonXmlElementWrapper(localName = "alreadyPresent")
+        @JacksonXmlProperty(localName = "presentId")
+        List<Long> alreadyPresent,
+        Integer employeesRelinked
+) {
+}
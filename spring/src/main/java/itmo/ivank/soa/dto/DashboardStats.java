@@ -0,0 +1,10 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+@JacksonXmlRootElement(localName = "dashboardStats")
+public record DashboardStats(
+        TurnoverResponse turnover,
+        TypeCountResponse types
+) {
+}
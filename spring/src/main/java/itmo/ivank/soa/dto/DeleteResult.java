@@ -0,0 +1,9 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+@JacksonXmlRootElement(localName = "deleteResult")
+public record DeleteResult(
+        Long deletedCount
+) {
+}
@@ -0,0 +1,18 @@
+package itmo.ivank.soa.dto;
+
+import itmo.ivank.soa.dto.filter.primitive.NumberFilter;
+import itmo.ivank.soa.dto.filter.primitive.StringFilter;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record EmployeeQuery(
+        @Size(min = 1) List<String> sort,
+        @Valid NumberFilter<Long> idFilter,
+        @Valid StringFilter nameFilter,
+        @Valid NumberFilter<Long> salaryFilter,
+        @Size(max = 1000) List<@NotNull Long> organizationIds
+) {
+}
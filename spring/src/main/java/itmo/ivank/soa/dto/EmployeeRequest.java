@@ -3,12 +3,14 @@ package itmo.ivank.soa.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import org.hibernate.validator.constraints.Length;
 
 public record EmployeeRequest(
         @Positive Long id,
         @NotNull @NotBlank @Length(max = 128) String name,
         @NotNull @Positive Long salary,
-        @NotNull Long organizationId
+        @NotNull Long organizationId,
+        @PositiveOrZero Long version
 ) {
 }
@@ -0,0 +1,19 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import itmo.ivank.soa.entity.Employee;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "employeesByIds")
+public record EmployeesByIds(
+        @JacksonXmlElementWrapper(localName = "employees")
+        @JacksonXmlProperty(localName = "employee")
+        List<Employee> employees,
+        @JacksonXmlElementWrapper(localName = "missing")
+        @JacksonXmlProperty(localName = "id")
+        List<Long> missing
+) {
+}
@@ -0,0 +1,18 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import itmo.ivank.soa.entity.Employee;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "employeesSlice")
+public record EmployeesSlice(
+        @JacksonXmlElementWrapper(localName = "employees")
+        @JacksonXmlProperty(localName = "employee")
+        List<Employee> employees,
+        Integer size,
+        String next
+) {
+}
@@ -0,0 +1,18 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "histogram")
+public record Histogram(
+        String field,
+        Double min,
+        Double max,
+        @JacksonXmlElementWrapper(localName = "buckets")
+        @JacksonXmlProperty(localName = "bucket")
+        List<Long> buckets
+) {
+}
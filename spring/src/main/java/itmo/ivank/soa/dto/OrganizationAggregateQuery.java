@@ -0,0 +1,15 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+public record OrganizationAggregateQuery(
+        @Valid OrganizationQuery filter,
+        @JacksonXmlElementWrapper(useWrapping = false)
+        List<String> groupBy,
+        @JacksonXmlElementWrapper(useWrapping = false)
+        List<String> aggregate
+) {
+}
@@ -0,0 +1,12 @@
+package itmo.ivank.soa.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record OrganizationCompensation(
+        @Valid @NotNull OrganizationRequest organization,
+        List<EmployeeRequest> employees
+) {
+}
@@ -2,6 +2,7 @@ package itmo.ivank.soa.dto;
 
 import itmo.ivank.soa.dto.filter.AddressFilter;
 import itmo.ivank.soa.dto.filter.CoordinatesFilter;
+import itmo.ivank.soa.dto.filter.FilterNode;
 import itmo.ivank.soa.dto.filter.primitive.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Size;
@@ -17,6 +18,7 @@ public record OrganizationQuery(
         @Valid NumberFilter<Float> annualTurnoverFilter,
         @Valid StringFilter fullNameFilter,
         @Valid TypeFilter typeFilter,
-        @Valid AddressFilter officialAddressFilter
+        @Valid AddressFilter officialAddressFilter,
+        @Valid FilterNode where
 ) {
 }
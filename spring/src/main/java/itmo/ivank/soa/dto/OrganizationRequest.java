@@ -16,6 +16,7 @@ public record OrganizationRequest(
         @NotNull @Positive Float annualTurnover,
         @Pattern(regexp = "^(?!\\s*$).+") @Size(max = 255) String fullName,
         @NotNull OrganizationType type,
-        @Valid Address officialAddress
+        @Valid Address officialAddress,
+        @PositiveOrZero Long version
 ) {
 }
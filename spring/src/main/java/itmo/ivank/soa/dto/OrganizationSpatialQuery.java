@@ -0,0 +1,14 @@
+package itmo.ivank.soa.dto;
+
+import itmo.ivank.soa.dto.filter.BoundingBox;
+import itmo.ivank.soa.dto.filter.NearPoint;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public record OrganizationSpatialQuery(
+        @NotNull String field,
+        @Valid BoundingBox box,
+        @Valid NearPoint near,
+        @Valid OrganizationQuery filter
+) {
+}
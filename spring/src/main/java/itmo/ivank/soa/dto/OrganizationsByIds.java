@@ -0,0 +1,19 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import itmo.ivank.soa.entity.Organization;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "organizationsByIds")
+public record OrganizationsByIds(
+        @JacksonXmlElementWrapper(localName = "organizations")
+        @JacksonXmlProperty(localName = "organization")
+        List<Organization> organizations,
+        @JacksonXmlElementWrapper(localName = "missing")
+        @JacksonXmlProperty(localName = "id")
+        List<Long> missing
+) {
+}
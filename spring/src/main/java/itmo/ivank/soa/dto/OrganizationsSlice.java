@@ -0,0 +1,18 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import itmo.ivank.soa.entity.Organization;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "organizationsSlice")
+public record OrganizationsSlice(
+        @JacksonXmlElementWrapper(localName = "organizations")
+        @JacksonXmlProperty(localName = "organization")
+        List<Organization> organizations,
+        Integer size,
+        String next
+) {
+}
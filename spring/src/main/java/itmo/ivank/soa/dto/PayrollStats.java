@@ -0,0 +1,13 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+@JacksonXmlRootElement(localName = "payrollStats")
+public record PayrollStats(
+        Long organizationId,
+        Long headcount,
+        Long salarySum,
+        Long minSalary,
+        Long maxSalary
+) {
+}
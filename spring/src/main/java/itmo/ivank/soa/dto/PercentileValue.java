@@ -0,0 +1,7 @@
+package itmo.ivank.soa.dto;
+
+public record PercentileValue(
+        Double fraction,
+        Double value
+) {
+}
@@ -0,0 +1,7 @@
+package itmo.ivank.soa.dto;
+
+public record TownCount(
+        String town,
+        Long count
+) {
+}
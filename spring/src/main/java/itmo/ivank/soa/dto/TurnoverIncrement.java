@@ -0,0 +1,14 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+@JacksonXmlRootElement(localName = "turnoverIncrement")
+public record TurnoverIncrement(
+        @NotNull @DecimalMin("-3.4028235E38") @DecimalMax("3.4028235E38") Float delta,
+        @PositiveOrZero Long version
+) {
+}
@@ -0,0 +1,18 @@
+package itmo.ivank.soa.dto;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import java.util.List;
+
+@JacksonXmlRootElement(localName = "upsertResponse")
+public record UpsertResponse(
+        @JacksonXmlElementWrapper(localName = "results")
+        @JacksonXmlProperty(localName = "result")
+        List<UpsertResult> results,
+        Integer created,
+        Integer updated,
+        Integer failed
+) {
+}
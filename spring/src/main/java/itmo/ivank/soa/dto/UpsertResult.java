@@ -0,0 +1,9 @@
+package itmo.ivank.soa.dto;
+
+public record UpsertResult(
+        Integer index,
+        Long id,
+        UpsertStatus status,
+        String message
+) {
+}
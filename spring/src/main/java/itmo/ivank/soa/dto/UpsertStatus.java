@@ -0,0 +1,9 @@
+package itmo.ivank.soa.dto;
+
+public enum UpsertStatus {
+
+    CREATED,
+    UPDATED,
+    FAILED
+
+}
@@ -0,0 +1,11 @@
+package itmo.ivank.soa.dto.filter;
+
+import jakarta.validation.constraints.NotNull;
+
+public record BoundingBox(
+        @NotNull Double minX,
+        @NotNull Double minY,
+        @NotNull Double maxX,
+        @NotNull Double maxY
+) {
+}
@@ -0,0 +1,29 @@
+package itmo.ivank.soa.dto.filter;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import itmo.ivank.soa.dto.filter.primitive.DateFilter;
+import itmo.ivank.soa.dto.filter.primitive.NumberFilter;
+import itmo.ivank.soa.dto.filter.primitive.StringFilter;
+import itmo.ivank.soa.dto.filter.primitive.TypeFilter;
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+/**
+ * A node of a boolean filter tree. Everything set on a node must hold: its field filters, all of
+ * {@code and}, at least one of {@code or} and not {@code not}.
+ */
+public record FilterNode(
+        @Valid @JacksonXmlElementWrapper(useWrapping = false) List<FilterNode> and,
+        @Valid @JacksonXmlElementWrapper(useWrapping = false) List<FilterNode> or,
+        @Valid FilterNode not,
+        @Valid NumberFilter<Long> idFilter,
+        @Valid StringFilter nameFilter,
+        @Valid CoordinatesFilter coordinatesFilter,
+        @Valid DateFilter creationDateFilter,
+        @Valid NumberFilter<Float> annualTurnoverFilter,
+        @Valid StringFilter fullNameFilter,
+        @Valid TypeFilter typeFilter,
+        @Valid AddressFilter officialAddressFilter
+) {
+}
@@ -0,0 +1,11 @@
+package itmo.ivank.soa.dto.filter;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record NearPoint(
+        @NotNull Double x,
+        @NotNull Double y,
+        @PositiveOrZero Double radius
+) {
+}
@@ -1,13 +1,17 @@
 package itmo.ivank.soa.entity;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import itmo.ivank.soa.util.FieldSet;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
 @Table(name = "employees")
@@ -16,8 +20,17 @@ import org.hibernate.annotations.OnDeleteAction;
 @NoArgsConstructor
 @AllArgsConstructor
 @JacksonXmlRootElement(localName = "employee")
+@JsonFilter(FieldSet.EMPLOYEE_FILTER)
+@SQLRestriction(Employee.OF_LIVE_ORGANIZATION)
 public class Employee {
 
+    /**
+     * Hides employees of soft-deleted organizations. It is always on: with soft delete disabled no organization
+     * has a tombstone and the primary key probe finds nothing.
+     */
+    public static final String OF_LIVE_ORGANIZATION =
+            "NOT EXISTS (SELECT 1 FROM organizations o WHERE o.id = organization_id AND o.deleted_at IS NOT NULL)";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -33,4 +46,8 @@ public class Employee {
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Organization organization;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
 }
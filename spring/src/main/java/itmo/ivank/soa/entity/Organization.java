@@ -1,5 +1,7 @@
 package itmo.ivank.soa.entity;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Positive;
@@ -7,7 +9,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import itmo.ivank.soa.util.FieldSet;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
@@ -17,6 +23,8 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @JacksonXmlRootElement(localName = "organization")
+@JsonFilter(FieldSet.ORGANIZATION_FILTER)
+@SQLRestriction("deleted_at IS NULL")
 public class Organization {
 
     @Id
@@ -57,4 +65,12 @@ public class Organization {
     })
     private Address officialAddress;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    @Column
+    @JsonIgnore
+    private Instant deletedAt;
+
 }
@@ -2,13 +2,18 @@ package itmo.ivank.soa.exception;
 
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import itmo.ivank.soa.dto.AppError;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
 import java.util.Date;
@@ -18,6 +23,10 @@ import java.util.NoSuchElementException;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    public static final String DATA_BUSY = "The data is busy with another operation, try again later";
+    public static final String DATA_CHANGED = "The data was changed by another operation, reload it and try again";
+    public static final String DATA_CONFLICT = "The data conflicts with existing data";
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<AppError> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
 
@@ -30,6 +39,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<AppError> handleHandlerMethodValidationException(HandlerMethodValidationException ex) {
+        // also reports @Valid request bodies of handlers that have constraints on their parameters
+        String message = ex.getParameterValidationResults().stream()
+                .flatMap(result -> result.getResolvableErrors().stream()
+                        .map(error -> (error instanceof FieldError fe ? fe.getField()
+                                : result.getMethodParameter().getParameterName()) + " " + error.getDefaultMessage()))
+                .reduce("", (a, b) -> a + "\n" + b);
+        AppError error = new AppError(400, message);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(UnrecognizedPropertyException.class)
     public ResponseEntity<AppError> handleUnrecognizedPropertyException(UnrecognizedPropertyException ex) {
         String message = String.format("Unknown field: %s", ex.getPropertyName());
@@ -72,4 +93,36 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<AppError> handleInvalidBatchException(InvalidBatchException ex) {
+        String message = ex.getMessage();
+        AppError error = new AppError(400, message);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<AppError> handlePessimisticLockingFailureException(PessimisticLockingFailureException ex) {
+        AppError error = new AppError(409, DATA_BUSY);
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<AppError> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        AppError error = new AppError(409, DATA_CHANGED);
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<AppError> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        AppError error = new AppError(409, DATA_CONFLICT);
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidOperationException.class)
+    public ResponseEntity<AppError> handleInvalidOperationException(InvalidOperationException ex) {
+        String message = ex.getMessage();
+        AppError error = new AppError(400, message);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
 }
@@ -0,0 +1,7 @@
+package itmo.ivank.soa.exception;
+
+public class InvalidBatchException extends RuntimeException {
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
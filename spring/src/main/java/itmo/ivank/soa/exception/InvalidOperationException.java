@@ -0,0 +1,7 @@
+package itmo.ivank.soa.exception;
+
+public class InvalidOperationException extends RuntimeException {
+    public InvalidOperationException(String message) {
+        super(message);
+    }
+}
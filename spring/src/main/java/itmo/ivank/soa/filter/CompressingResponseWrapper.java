@@ -0,0 +1,243 @@
+package itmo.ivank.soa.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffers the response body until it either reaches {@code threshold} bytes (then switches to
+ * streaming compression) or is completed below it (then is sent as is). Responses marked with
+ * {@link CompressionFilter#flushThrough} are instead sent on every flush of their output stream.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private enum State { UNDECIDED, PLAIN, COMPRESSED }
+
+    private final HttpServletRequest request;
+    private final String encoding;
+    private final int threshold;
+    private final List<MediaType> mimeTypes;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private State state = State.UNDECIDED;
+    private OutputStream target;
+    private ServletOutputStream raw;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponseWrapper(HttpServletRequest request, HttpServletResponse response, String encoding,
+                               int threshold, List<String> mimeTypes) {
+        super(response);
+        this.request = request;
+        this.encoding = encoding;
+        this.threshold = threshold;
+        this.mimeTypes = mimeTypes.stream().map(MediaType::parseMediaType).toList();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) throw new IllegalStateException("getWriter() has already been called");
+        if (outputStream == null) outputStream = new ThresholdOutputStream();
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            outputStream = new ThresholdOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        if (state == State.PLAIN) super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (state == State.PLAIN) super.setContentLengthLong(len);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && state != State.PLAIN) return;
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && state != State.PLAIN) return;
+        super.addHeader(name, value);
+    }
+
+    /**
+     * An explicit flush sends whatever is buffered right away, compressed with a sync flush if it is compressible,
+     * so streamed responses are not held back below the threshold.
+     */
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        if (state == State.UNDECIDED) decide(buffer.size() > 0);
+        target.flush();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        buffer.reset();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer.reset();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        buffer.reset();
+        state = State.PLAIN;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        buffer.reset();
+        state = State.PLAIN;
+        super.sendError(sc);
+    }
+
+    void finish() throws IOException {
+        if (writer != null) writer.flush();
+        switch (state) {
+            case UNDECIDED -> {
+                if (buffer.size() == 0) return;
+                super.setContentLength(buffer.size());
+                decide(false);
+                target.flush();
+            }
+            case COMPRESSED -> ((DeflaterOutputStream) target).finish();
+            case PLAIN -> {
+                if (target != null) target.flush();
+            }
+        }
+    }
+
+    private void decide(boolean reachedThreshold) throws IOException {
+        raw = getResponse().getOutputStream();
+        if (reachedThreshold && isCompressible()) {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+            target = CompressionFilter.GZIP.equals(encoding)
+                    ? new GZIPOutputStream(raw, 8192, true)
+                    : new DeflaterOutputStream(raw, true);
+            state = State.COMPRESSED;
+        } else {
+            target = raw;
+            state = State.PLAIN;
+        }
+        buffer.writeTo(target);
+        buffer.reset();
+    }
+
+    private boolean isCompressible() {
+        if (getStatus() == SC_NO_CONTENT || getStatus() == SC_NOT_MODIFIED) return false;
+        if (containsHeader(HttpHeaders.CONTENT_ENCODING)) return false;
+        String contentType = getContentType();
+        if (contentType == null || isEventStream()) return false;
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(m -> m.includes(type));
+    }
+
+    private boolean isFlushThrough() {
+        return request.getAttribute(CompressionFilter.FLUSH_THROUGH) != null;
+    }
+
+    private boolean isEventStream() {
+        String contentType = getContentType();
+        return contentType != null && MediaType.TEXT_EVENT_STREAM.includes(MediaType.parseMediaType(contentType));
+    }
+
+    private class ThresholdOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            if (state == State.UNDECIDED) {
+                buffer.write(b);
+                if (buffer.size() >= threshold) decide(true);
+            } else {
+                target.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (state == State.UNDECIDED) {
+                buffer.write(b, off, len);
+                if (buffer.size() >= threshold) decide(true);
+            } else {
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // XML writers flush eagerly, so below the threshold keep buffering until finish() or flushBuffer(),
+            // except for streamed responses: event streams are never compressed, the marked ones are compressed
+            // from their first flush on, and both must reach the client as they are written
+            if (state == State.UNDECIDED) {
+                if (isEventStream()) {
+                    decide(false);
+                } else if (isFlushThrough() && buffer.size() > 0) {
+                    decide(true);
+                }
+            }
+            if (state != State.UNDECIDED) target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            return state == State.UNDECIDED || raw.isReady();
+        }
+
+        /**
+         * Non-blocking writes are readiness-driven by the container stream, so whatever is buffered is sent
+         * uncompressed first unless compression has already started.
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                if (state == State.UNDECIDED) decide(false);
+            } catch (IOException e) {
+                writeListener.onError(e);
+                return;
+            }
+            raw.setWriteListener(writeListener);
+        }
+
+    }
+
+}
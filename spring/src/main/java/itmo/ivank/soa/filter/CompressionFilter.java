@@ -0,0 +1,145 @@
+package itmo.ivank.soa.filter;
+
+import itmo.ivank.soa.config.CompressionProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@Component
+@RequiredArgsConstructor
+public class CompressionFilter extends OncePerRequestFilter {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+    static final String FLUSH_THROUGH = CompressionFilter.class.getName() + ".FLUSH_THROUGH";
+
+    private final CompressionProperties properties;
+
+    /**
+     * Marks the response to {@code request} as streamed: every flush of its output stream reaches the client right
+     * away, compressed with a sync flush if it is compressible, instead of being buffered below the threshold.
+     */
+    public static void flushThrough(ServletRequest request) {
+        request.setAttribute(FLUSH_THROUGH, Boolean.TRUE);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && !contentEncoding.isBlank()) {
+            String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+            if (!encoding.equals(GZIP) && !encoding.equals(DEFLATE)) {
+                response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                        "Unsupported Content-Encoding: " + contentEncoding);
+                return;
+            }
+            request = new DecompressingRequestWrapper(request, encoding, properties.maxInflatedRequestSize());
+        }
+
+        String encoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null || "HEAD".equals(request.getMethod()) || acceptsEventStream(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        var wrapper = new CompressingResponseWrapper(request, response, encoding,
+                properties.minResponseSize(), properties.mimeTypes());
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new FinishingListener(wrapper));
+            } else {
+                wrapper.finish();
+            }
+        }
+    }
+
+    /**
+     * Finishes the response once its asynchronous processing completes, also after a timeout or an error.
+     */
+    private record FinishingListener(CompressingResponseWrapper wrapper) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            wrapper.finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+    }
+
+    private static boolean acceptsEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) return null;
+        double gzip = 0;
+        double deflate = 0;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case GZIP, "x-gzip" -> gzip = Math.max(gzip, q);
+                case DEFLATE -> deflate = Math.max(deflate, q);
+                case "*" -> wildcard = q;
+                default -> {
+                }
+            }
+        }
+        if (wildcard > 0) {
+            if (gzip == 0 && !acceptEncoding.contains(GZIP)) gzip = wildcard;
+            if (deflate == 0 && !acceptEncoding.contains(DEFLATE)) deflate = wildcard;
+        }
+        if (gzip > 0 && gzip >= deflate) return GZIP;
+        if (deflate > 0) return DEFLATE;
+        return null;
+    }
+
+}
@@ -0,0 +1,156 @@
+package itmo.ivank.soa.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+class DecompressingRequestWrapper extends HttpServletRequestWrapper {
+
+    private final String encoding;
+    private final long maxInflatedSize;
+    private ServletInputStream inputStream;
+
+    DecompressingRequestWrapper(HttpServletRequest request, String encoding, long maxInflatedSize) {
+        super(request);
+        this.encoding = encoding;
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            ServletInputStream raw = super.getInputStream();
+            InputStream inflated = CompressionFilter.GZIP.equals(encoding)
+                    ? new GZIPInputStream(raw, 8192)
+                    : new InflaterInputStream(raw);
+            inputStream = new BoundedServletInputStream(raw, inflated, maxInflatedSize);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        String charset = getCharacterEncoding();
+        Charset cs = charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), cs));
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return isStripped(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return isStripped(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !isStripped(name))
+                .toList());
+    }
+
+    private static boolean isStripped(String name) {
+        return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+    }
+
+    private static class BoundedServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream raw;
+        private final InputStream delegate;
+        private final long limit;
+        private long read;
+        private boolean finished;
+
+        BoundedServletInputStream(ServletInputStream raw, InputStream delegate, long limit) {
+            this.raw = raw;
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = delegate.read(b, off, len);
+            if (n < 0) {
+                finished = true;
+            } else {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (limit > 0 && read > limit) {
+                throw new IOException("Decompressed request body exceeds " + limit + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            if (finished) return true;
+            try {
+                return delegate.available() > 0 || raw.isReady();
+            } catch (IOException e) {
+                return true;
+            }
+        }
+
+        /**
+         * Readiness follows the compressed container stream; the listener reads inflated bytes from this one.
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            raw.setReadListener(readListener);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package itmo.ivank.soa.filter;
+
+import itmo.ivank.soa.config.ReplicaProperties;
+import itmo.ivank.soa.datasource.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the request to a client, identified by {@code soa.replica.client-header}, else by the first address of
+ * {@code X-Forwarded-For} set by the frontend proxy, else by the remote address.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "soa.replica", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final ReplicaProperties properties;
+    private final ReadYourWrites readYourWrites;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        readYourWrites.bind(client(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            readYourWrites.unbind();
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        String client = request.getHeader(properties.clientHeader());
+        if (client != null && !client.isBlank()) return client.trim();
+        String forwarded = request.getHeader(FORWARDED_FOR);
+        if (forwarded != null && !forwarded.isBlank()) return forwarded.split(",", 2)[0].trim();
+        return request.getRemoteAddr();
+    }
+
+}
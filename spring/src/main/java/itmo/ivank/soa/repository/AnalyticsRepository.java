@@ -0,0 +1,128 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.analytics.ColumnStats;
+import itmo.ivank.soa.analytics.NumericColumn;
+import itmo.ivank.soa.analytics.OrganizationColumns;
+import itmo.ivank.soa.entity.OrganizationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * SQL counterparts of the {@link OrganizationColumns} queries, and loading of the columns themselves.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsRepository {
+
+    private static final String LIVE = " FROM organizations WHERE deleted_at IS NULL";
+    private static final String COLUMNS = """
+            SELECT id, annual_turnover, coordinates_x, coordinates_y, official_address_town_x,
+                   official_address_town_y, type, official_address_town_name""";
+    private static final int FETCH_SIZE = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ColumnStats stats(NumericColumn column) {
+        String c = column.sqlColumn();
+        return jdbcTemplate.queryForObject("SELECT count(" + c + "), coalesce(sum(" + c + "::float8), 0), min("
+                + c + "::float8), max(" + c + "::float8)" + LIVE, (rs, i) -> rs.getLong(1) == 0
+                ? new ColumnStats(0, 0, Double.NaN, Double.NaN)
+                : new ColumnStats(rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4)));
+    }
+
+    public long[] histogram(NumericColumn column, int buckets, double min, double max) {
+        String c = column.sqlColumn();
+        long[] counts = new long[buckets];
+        if (max <= min) {
+            counts[0] = jdbcTemplate.queryForObject("SELECT count(*)" + LIVE + " AND " + c + " = ?", Long.class, min);
+            return counts;
+        }
+        jdbcTemplate.query("SELECT least(width_bucket(" + c + ", ?, ?, ?), ?), count(*)" + LIVE
+                        + " AND " + c + " BETWEEN ? AND ? GROUP BY 1",
+                rs -> {
+                    counts[rs.getInt(1) - 1] = rs.getLong(2);
+                }, min, max, buckets, buckets, min, max);
+        return counts;
+    }
+
+    public double[] percentiles(NumericColumn column, double[] fractions) {
+        String array = Arrays.stream(fractions).mapToObj(Double::toString).collect(Collectors.joining(",", "ARRAY[", "]"));
+        return jdbcTemplate.queryForObject("SELECT percentile_cont(" + array + "::float8[]) WITHIN GROUP (ORDER BY "
+                + column.sqlColumn() + ")" + LIVE, (rs, i) -> {
+            Double[] values = (Double[]) rs.getArray(1).getArray();
+            return Arrays.stream(values).mapToDouble(v -> v != null ? v : Double.NaN).toArray();
+        });
+    }
+
+    public Map<OrganizationType, Long> countByType() {
+        Map<OrganizationType, Long> counts = new LinkedHashMap<>();
+        for (OrganizationType type : OrganizationType.values()) counts.put(type, 0L);
+        jdbcTemplate.query("SELECT type, count(*)" + LIVE + " GROUP BY type",
+                rs -> {
+                    counts.put(OrganizationType.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        return counts;
+    }
+
+    public Map<String, Long> countByTown() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT official_address_town_name, count(*)" + LIVE
+                        + " AND official_address_town_name IS NOT NULL GROUP BY 1 ORDER BY 1",
+                rs -> {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                });
+        return counts;
+    }
+
+    /**
+     * Copies live organizations into {@code columns}: all of them for {@code null} ids, otherwise the given ones,
+     * removing those that no longer exist or are soft-deleted.
+     */
+    public void loadColumns(OrganizationColumns columns, Collection<Long> ids) {
+        Set<Long> missing = ids == null ? new HashSet<>() : new HashSet<>(ids);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            // the driver only streams with a cursor inside a transaction
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    COLUMNS + LIVE + (ids == null ? "" : " AND id = ANY(?)"))) {
+                statement.setFetchSize(FETCH_SIZE);
+                if (ids != null) statement.setObject(1, ids.stream().mapToLong(Long::longValue).toArray());
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong(1);
+                        columns.upsert(id,
+                                rs.getObject(2, Float.class),
+                                rs.getObject(3, Long.class),
+                                rs.getObject(4, Float.class),
+                                rs.getObject(5, Float.class),
+                                rs.getObject(6, Long.class),
+                                OrganizationType.valueOf(rs.getString(7)),
+                                rs.getString(8));
+                        missing.remove(id);
+                    }
+                }
+            } finally {
+                if (autoCommit) {
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            }
+            return null;
+        });
+        missing.forEach(columns::remove);
+    }
+
+}
@@ -0,0 +1,42 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.entity.Employee;
+import itmo.ivank.soa.util.PayrollChanges;
+
+import java.util.List;
+
+public interface EmployeeBatchRepository {
+
+    /**
+     * Links employees to their organizations in one multi-row statement, re-inserting
+     * employees with their original ids if they no longer exist.
+     *
+     * @return number of affected employees
+     */
+    int relinkAll(List<Employee> employees);
+
+    void advanceIdSequence();
+
+    /**
+     * Locks the employees with the given ids for update in ascending id order, so that concurrent batches over
+     * the same employees queue up instead of deadlocking.
+     *
+     * @return number of locked employees
+     */
+    int lockAllByIds(Long[] ids);
+
+    /**
+     * Deletes employees with the given ids using {@code id = ANY(?)} statements of at most {@code chunkSize} ids,
+     * recording every deleted employee in {@code changes}. Each chunk is locked before it is deleted, so with
+     * {@code ids} in ascending order the rows are locked in id order, like {@link #lockAllByIds} does.
+     *
+     * @return number of deleted employees
+     */
+    long deleteAllByIds(long[] ids, int chunkSize, PayrollChanges changes);
+
+    /**
+     * @return ids of the deleted employees of the organization
+     */
+    List<Long> deleteAllByOrganization(Long organizationId);
+
+}
@@ -0,0 +1,81 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.entity.Employee;
+import itmo.ivank.soa.util.PayrollChanges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EmployeeBatchRepositoryImpl implements EmployeeBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockWaits lockWaits;
+
+    @Override
+    public int relinkAll(List<Employee> employees) {
+        if (employees.isEmpty()) return 0;
+        String sql = "INSERT INTO employees (id, name, salary, organization_id) VALUES "
+                + String.join(", ", Collections.nCopies(employees.size(), "(?, ?, ?, ?)"))
+                + " ON CONFLICT (id) DO UPDATE SET organization_id = EXCLUDED.organization_id, version = employees.version + 1";
+        List<Object> args = new ArrayList<>(employees.size() * 4);
+        for (var e : employees) {
+            args.add(e.getId());
+            args.add(e.getName());
+            args.add(e.getSalary());
+            args.add(e.getOrganization().getId());
+        }
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    @Override
+    public void advanceIdSequence() {
+        jdbcTemplate.queryForObject("""
+                SELECT setval(pg_get_serial_sequence('employees', 'id'),
+                              GREATEST((SELECT COALESCE(MAX(id), 0) FROM employees),
+                                       nextval(pg_get_serial_sequence('employees', 'id'))))
+                """, Long.class);
+    }
+
+    @Override
+    public int lockAllByIds(Long[] ids) {
+        if (ids.length == 0) return 0;
+        return lockWaits.acquire("employee", () -> jdbcTemplate.queryForList(
+                "SELECT id FROM employees WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE",
+                Long.class, (Object) ids).size());
+    }
+
+    @Override
+    public long deleteAllByIds(long[] ids, int chunkSize, PayrollChanges changes) {
+        int size = Math.max(1, chunkSize);
+        long[] deleted = {0};
+        for (int from = 0; from < ids.length; from += size) {
+            long[] chunk = Arrays.copyOfRange(ids, from, Math.min(from + size, ids.length));
+            // the delete locks its rows in no particular order, so they are locked in id order first
+            lockWaits.acquire("employee", () -> {
+                jdbcTemplate.query("SELECT id FROM employees WHERE id = ANY(?) ORDER BY id FOR UPDATE",
+                        ps -> ps.setObject(1, chunk), rs -> {
+                        });
+                return null;
+            });
+            jdbcTemplate.query("DELETE FROM employees WHERE id = ANY(?) RETURNING organization_id, salary",
+                    ps -> ps.setObject(1, chunk), rs -> {
+                        deleted[0]++;
+                        long organizationId = rs.getLong(1);
+                        if (!rs.wasNull()) changes.left(organizationId, rs.getLong(2));
+                    });
+        }
+        return deleted[0];
+    }
+
+    @Override
+    public List<Long> deleteAllByOrganization(Long organizationId) {
+        return jdbcTemplate.queryForList("DELETE FROM employees WHERE organization_id = ? RETURNING id",
+                Long.class, organizationId);
+    }
+
+}
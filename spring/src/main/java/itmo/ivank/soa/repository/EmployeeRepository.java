@@ -6,16 +6,34 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeBatchRepository {
 
     Page<Employee> findByOrganization(Organization organization, Pageable pageable);
 
     List<Employee> findByOrganization(Organization organization);
 
+    /**
+     * Binds the ids as a single array, so the statement is the same for any number of ids.
+     */
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.organization WHERE any_of(e.id, :ids)")
+    List<Employee> findAllWithOrganizationByIdArray(@Param("ids") Long[] ids);
+
+    @Query(value = "SELECT DISTINCT organization_id FROM employees WHERE id = ANY(:ids) AND organization_id IS NOT NULL",
+            nativeQuery = true)
+    List<Long> findOrganizationIdsByIdArray(@Param("ids") Long[] ids);
+
+    @Modifying
+    @Query(value = "UPDATE employees SET organization_id = :to, version = version + 1 WHERE organization_id = :from",
+            nativeQuery = true)
+    int reassignAll(@Param("from") Long from, @Param("to") Long to);
+
 }
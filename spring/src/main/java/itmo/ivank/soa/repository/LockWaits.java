@@ -0,0 +1,64 @@
+package itmo.ivank.soa.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import itmo.ivank.soa.config.LockProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Bounds lock waits by {@code soa.lock.wait-timeout} and records them as the {@code soa.lock.wait} timer.
+ */
+@Component
+@RequiredArgsConstructor
+class LockWaits {
+
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs {@code acquisition} in the current transaction; the timeout also applies to any later lock wait in it.
+     *
+     * @throws CannotAcquireLockException if a lock is not granted in time
+     */
+    <T> T acquire(String lock, Supplier<T> acquisition) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                properties.waitTimeout().toMillis() + "ms");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            T result = acquisition.get();
+            outcome = "acquired";
+            return result;
+        } catch (DataAccessException e) {
+            if (!lockNotAvailable(e)) throw e;
+            outcome = "timeout";
+            if (e instanceof CannotAcquireLockException cannotAcquire) throw cannotAcquire;
+            throw new CannotAcquireLockException("Timed out waiting for " + lock + " locks", e);
+        } finally {
+            sample.stop(meterRegistry.timer("soa.lock.wait", "lock", lock, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Depending on the exception translator in use, a lock_timeout arrives either already categorized or as an
+     * uncategorized exception carrying its SQL state.
+     */
+    private static boolean lockNotAvailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotAcquireLockException) return true;
+            if (cause instanceof SQLException sql && LOCK_NOT_AVAILABLE.equals(sql.getSQLState())) return true;
+        }
+        return false;
+    }
+
+}
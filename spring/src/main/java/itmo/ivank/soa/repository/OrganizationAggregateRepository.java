@@ -0,0 +1,18 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.entity.Organization;
+import itmo.ivank.soa.util.AggregateBuilder.Aggregate;
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface OrganizationAggregateRepository {
+
+    /**
+     * Runs one {@code GROUP BY} query: every tuple holds the {@code groupBy} keys followed by the
+     * {@code aggregates}, ordered by the keys. At most {@code limit} groups are returned.
+     */
+    List<Tuple> aggregate(Specification<Organization> spec, List<String> groupBy, List<Aggregate> aggregates, int limit);
+
+}
@@ -0,0 +1,50 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.entity.Organization;
+import itmo.ivank.soa.util.AggregateBuilder;
+import itmo.ivank.soa.util.AggregateBuilder.Aggregate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrganizationAggregateRepositoryImpl implements OrganizationAggregateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> aggregate(Specification<Organization> spec, List<String> groupBy, List<Aggregate> aggregates,
+                                 int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Organization> root = query.from(Organization.class);
+
+        List<Expression<?>> keys = groupBy.stream()
+                .<Expression<?>>map(field -> AggregateBuilder.groupExpression(root, cb, field))
+                .toList();
+        List<Selection<?>> selections = new ArrayList<>(keys);
+        for (var aggregate : aggregates) {
+            selections.add(AggregateBuilder.aggregateExpression(root, cb, aggregate));
+        }
+        query.multiselect(selections);
+        if (spec != null) {
+            var predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+        if (!keys.isEmpty()) {
+            query.groupBy(keys);
+            query.orderBy(keys.stream().map(cb::asc).toList());
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+}
@@ -0,0 +1,47 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.entity.Organization;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public interface OrganizationBatchRepository {
+
+    /**
+     * Rows of 12 bind parameters that fit into one statement, Postgres accepts at most 65535 parameters.
+     */
+    int MAX_ROWS_PER_STATEMENT = 65535 / 12;
+
+    /**
+     * Inserts or replaces organizations with explicit ids in one multi-row statement.
+     *
+     * @return {@code true} for ids that were inserted, {@code false} for ids that were updated
+     */
+    Map<Long, Boolean> upsertAll(List<Organization> organizations);
+
+    /**
+     * Inserts organizations without ids in one multi-row statement.
+     *
+     * @return generated ids in the order of {@code organizations}
+     */
+    List<Long> insertAll(List<Organization> organizations);
+
+    /**
+     * Re-inserts organizations with their original ids and creation dates, or clears the tombstone of
+     * soft-deleted ones. Ids of live organizations are skipped.
+     *
+     * @return ids that were actually restored
+     */
+    List<Long> restoreAll(List<Organization> organizations);
+
+    void advanceIdSequence();
+
+    /**
+     * Hard-deletes up to {@code limit} organizations soft-deleted before {@code deletedBefore}.
+     *
+     * @return number of purged organizations
+     */
+    int purgeTombstones(Instant deletedBefore, int limit);
+
+}
@@ -0,0 +1,129 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.entity.Organization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class OrganizationBatchRepositoryImpl implements OrganizationBatchRepository {
+
+    private static final String COLUMNS = """
+            name, creation_date, annual_turnover, full_name, coordinates_x, coordinates_y, type,
+            official_address_street, official_address_town_x, official_address_town_y, official_address_town_name""";
+
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ROW_WITH_ID = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SET = """
+            name = EXCLUDED.name,
+            annual_turnover = EXCLUDED.annual_turnover,
+            full_name = EXCLUDED.full_name,
+            coordinates_x = EXCLUDED.coordinates_x,
+            coordinates_y = EXCLUDED.coordinates_y,
+            type = EXCLUDED.type,
+            official_address_street = EXCLUDED.official_address_street,
+            official_address_town_x = EXCLUDED.official_address_town_x,
+            official_address_town_y = EXCLUDED.official_address_town_y,
+            official_address_town_name = EXCLUDED.official_address_town_name,
+            deleted_at = NULL,
+            version = organizations.version + 1""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<Long, Boolean> upsertAll(List<Organization> organizations) {
+        if (organizations.isEmpty()) return Map.of();
+        String sql = "INSERT INTO organizations (id, " + COLUMNS + ") VALUES "
+                + String.join(", ", Collections.nCopies(organizations.size(), ROW_WITH_ID))
+                + " ON CONFLICT (id) DO UPDATE SET " + UPDATE_SET
+                + " RETURNING id, (xmax = 0) AS inserted";
+        List<Object> args = new ArrayList<>(organizations.size() * 12);
+        for (var o : organizations) {
+            args.add(o.getId());
+            addValues(args, o);
+        }
+        Map<Long, Boolean> result = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            result.put(rs.getLong("id"), rs.getBoolean("inserted"));
+        }, args.toArray());
+        return result;
+    }
+
+    @Override
+    public List<Long> insertAll(List<Organization> organizations) {
+        if (organizations.isEmpty()) return List.of();
+        String sql = "INSERT INTO organizations (" + COLUMNS + ") VALUES "
+                + String.join(", ", Collections.nCopies(organizations.size(), ROW))
+                + " RETURNING id";
+        List<Object> args = new ArrayList<>(organizations.size() * 11);
+        for (var o : organizations) {
+            addValues(args, o);
+        }
+        return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+    }
+
+    @Override
+    public List<Long> restoreAll(List<Organization> organizations) {
+        if (organizations.isEmpty()) return List.of();
+        String sql = "INSERT INTO organizations (id, " + COLUMNS + ") VALUES "
+                + String.join(", ", Collections.nCopies(organizations.size(), ROW_WITH_ID))
+                + " ON CONFLICT (id) DO UPDATE SET deleted_at = NULL, version = organizations.version + 1"
+                + " WHERE organizations.deleted_at IS NOT NULL"
+                + " RETURNING id";
+        List<Object> args = new ArrayList<>(organizations.size() * 12);
+        for (var o : organizations) {
+            args.add(o.getId());
+            addValues(args, o);
+        }
+        return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+    }
+
+    @Override
+    public void advanceIdSequence() {
+        jdbcTemplate.queryForObject("""
+                SELECT setval(pg_get_serial_sequence('organizations', 'id'),
+                              GREATEST((SELECT COALESCE(MAX(id), 0) FROM organizations),
+                                       nextval(pg_get_serial_sequence('organizations', 'id'))))
+                """, Long.class);
+    }
+
+    @Override
+    public int purgeTombstones(Instant deletedBefore, int limit) {
+        return jdbcTemplate.update("""
+                DELETE FROM organizations
+                WHERE id IN (SELECT id FROM organizations
+                             WHERE deleted_at < ?
+                             ORDER BY deleted_at
+                             LIMIT ?
+                             FOR UPDATE SKIP LOCKED)
+                """, Timestamp.from(deletedBefore), limit);
+    }
+
+    private static void addValues(List<Object> args, Organization o) {
+        var address = o.getOfficialAddress();
+        var town = address != null ? address.getTown() : null;
+        LocalDate creationDate = o.getCreationDate() != null ? o.getCreationDate() : LocalDate.now();
+        args.add(o.getName());
+        args.add(Date.valueOf(creationDate));
+        args.add(o.getAnnualTurnover());
+        args.add(o.getFullName());
+        args.add(o.getCoordinates().getX());
+        args.add(o.getCoordinates().getY());
+        args.add(o.getType().name());
+        args.add(address != null ? address.getStreet() : null);
+        args.add(town != null ? town.getX() : null);
+        args.add(town != null ? town.getY() : null);
+        args.add(town != null ? town.getName() : null);
+    }
+
+}
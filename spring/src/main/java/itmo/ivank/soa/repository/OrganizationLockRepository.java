@@ -0,0 +1,43 @@
+package itmo.ivank.soa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Transaction-scoped Postgres advisory locks keyed by organization id, shared by all nodes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrganizationLockRepository {
+
+    /**
+     * The first key of the two-key advisory locks, so that other users of advisory locks in the same database do
+     * not collide with organization ids.
+     */
+    static final int ORGANIZATION_LOCK_CLASS = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockWaits lockWaits;
+
+    /**
+     * Locks the organizations in key order until the current transaction ends. Waiting for any lock, here or later
+     * in the transaction, is bounded by {@code soa.lock.wait-timeout}. Ids beyond the {@code int} range wrap, so
+     * such organizations may share a lock.
+     *
+     * @throws CannotAcquireLockException if an organization stays locked for longer
+     */
+    public void lock(Collection<Long> organizationIds) {
+        lockWaits.acquire("organization", () -> {
+            for (int key : organizationIds.stream().mapToInt(Long::intValue).distinct().sorted().toArray()) {
+                jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?, ?)::text", String.class,
+                        ORGANIZATION_LOCK_CLASS, key);
+            }
+            return null;
+        });
+    }
+
+}
@@ -11,15 +11,103 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrganizationRepository extends JpaRepository<Organization, Long>, JpaSpecificationExecutor<Organization> {
+public interface OrganizationRepository extends JpaRepository<Organization, Long>, JpaSpecificationExecutor<Organization>,
+        OrganizationBatchRepository, OrganizationAggregateRepository {
 
     Integer countByType(OrganizationType type);
 
-    Page<Organization> findAllByFullNameIsLessThan(String value, Pageable pageable);
+    @Query(value = """
+            SELECT * FROM organizations
+            WHERE deleted_at IS NULL AND full_name COLLATE "C" < :value
+            ORDER BY full_name COLLATE "C", id
+            """, countQuery = """
+            SELECT count(*) FROM organizations
+            WHERE deleted_at IS NULL AND full_name COLLATE "C" < :value
+            """, nativeQuery = true)
+    Page<Organization> findAllByFullNameIsLessThan(@Param("value") String value, Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM organizations
+            WHERE deleted_at IS NULL AND full_name COLLATE "C" < :value
+            ORDER BY full_name COLLATE "C", id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Organization> findFirstByFullNameLessThan(@Param("value") String value, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM organizations
+            WHERE deleted_at IS NULL AND full_name COLLATE "C" < :value
+              AND (full_name COLLATE "C", id) > (:afterFullName, :afterId)
+            ORDER BY full_name COLLATE "C", id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Organization> findNextByFullNameLessThan(@Param("value") String value,
+                                                  @Param("afterFullName") String afterFullName,
+                                                  @Param("afterId") Long afterId,
+                                                  @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM organizations WHERE id = ANY(:ids) AND deleted_at IS NULL", nativeQuery = true)
+    List<Organization> findAllByIdArray(@Param("ids") Long[] ids);
+
+    /**
+     * Locks the organization against concurrent updates. The lock does not cover the key, so employee writes
+     * referencing it, which take a key share lock, are not blocked.
+     */
+    @Query(value = "SELECT * FROM organizations WHERE id = :id AND deleted_at IS NULL FOR NO KEY UPDATE",
+            nativeQuery = true)
+    Optional<Organization> lockById(@Param("id") Long id);
+
+    /**
+     * Locks the organization before deleting it. The lock covers the key, so employee writes that would create an
+     * employee in it or move one into it wait until the transaction ends.
+     */
+    @Query(value = "SELECT * FROM organizations WHERE id = :id AND deleted_at IS NULL FOR UPDATE", nativeQuery = true)
+    Optional<Organization> lockForRemovalById(@Param("id") Long id);
+
+    /**
+     * Locks the organization against deletion until the transaction ends, as the foreign key check of an employee
+     * write does. Unlike that check, it waits for a concurrent deletion and then finds nothing, even when the
+     * deletion only marked the organization as deleted.
+     */
+    @Query(value = "SELECT * FROM organizations WHERE id = :id AND deleted_at IS NULL FOR KEY SHARE", nativeQuery = true)
+    Optional<Organization> lockKeyById(@Param("id") Long id);
+
+    /**
+     * Adds {@code delta} to the turnover in place, provided the result stays positive and within the range of
+     * {@code real}, and, if {@code version} is given, the organization still has that version. The range is checked
+     * in {@code double precision}, where the sum cannot overflow.
+     *
+     * @return {@code 1} if the turnover was changed, {@code 0} otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE organizations SET annual_turnover = annual_turnover + :delta, version = version + 1
+            WHERE id = :id AND deleted_at IS NULL
+              AND (CAST(:version AS bigint) IS NULL OR version = :version)
+              AND CAST(annual_turnover AS double precision) + :delta > 0
+              AND CAST(annual_turnover AS double precision) + :delta <= CAST('3.4028235e38' AS real)
+            """, nativeQuery = true)
+    int addTurnover(@Param("id") Long id, @Param("delta") float delta, @Param("version") Long version);
+
+    @Modifying
+    @Query("""
+            UPDATE Organization o SET o.deletedAt = :deletedAt, o.version = o.version + 1
+            WHERE o.id = :id AND o.deletedAt IS NULL
+            """)
+    int softDelete(@Param("id") Long id, @Param("deletedAt") Instant deletedAt);
+
+    @Modifying
+    @Query(value = """
+            UPDATE organizations SET deleted_at = NULL, version = version + 1
+            WHERE id = :id AND deleted_at IS NOT NULL
+            """, nativeQuery = true)
+    int restoreDeleted(@Param("id") Long id);
 
     @Modifying
     @Query(value = """
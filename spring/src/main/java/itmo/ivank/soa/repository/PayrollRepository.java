@@ -0,0 +1,123 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.dto.PayrollStats;
+import itmo.ivank.soa.util.PayrollChanges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-organization headcount and salary counters kept in {@code organization_payroll}. Writers must call
+ * {@link #apply} in the transaction that changes {@code employees}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PayrollRepository {
+
+    private static final String REFRESH = """
+            UPDATE organization_payroll p
+            SET headcount = a.headcount, salary_sum = a.salary_sum, salary_min = a.salary_min, salary_max = a.salary_max
+            FROM (SELECT i.id, count(e.id) AS headcount, coalesce(sum(e.salary), 0) AS salary_sum,
+                         min(e.salary) AS salary_min, max(e.salary) AS salary_max
+                  FROM unnest(?::bigint[]) AS i(id)
+                  LEFT JOIN employees e ON e.organization_id = i.id
+                  GROUP BY i.id) a
+            WHERE p.organization_id = a.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<PayrollStats> find(Long organizationId) {
+        return jdbcTemplate.query("""
+                SELECT o.id, coalesce(p.headcount, 0), coalesce(p.salary_sum, 0), p.salary_min, p.salary_max
+                FROM organizations o
+                LEFT JOIN organization_payroll p ON p.organization_id = o.id
+                WHERE o.id = ? AND o.deleted_at IS NULL
+                """, (rs, i) -> new PayrollStats(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                rs.getObject(4, Long.class), rs.getObject(5, Long.class)), organizationId).stream().findFirst();
+    }
+
+    /**
+     * Adds the deltas to the counters in one multi-row upsert, locking the rows in organization id order, then
+     * recomputes the organizations whose minimum or maximum salary may have left.
+     */
+    public void apply(PayrollChanges changes) {
+        if (changes.isEmpty()) return;
+        var deltas = changes.deltas();
+        String sql = "INSERT INTO organization_payroll AS p (organization_id, headcount, salary_sum, salary_min, salary_max)"
+                + " VALUES " + String.join(", ", Collections.nCopies(deltas.size(), "(?, ?, ?, ?, ?)")) + """
+                 ON CONFLICT (organization_id) DO UPDATE SET
+                    headcount = p.headcount + EXCLUDED.headcount,
+                    salary_sum = p.salary_sum + EXCLUDED.salary_sum,
+                    salary_min = least(p.salary_min, EXCLUDED.salary_min),
+                    salary_max = greatest(p.salary_max, EXCLUDED.salary_max)
+                RETURNING organization_id, salary_min, salary_max""";
+        List<Object> args = new ArrayList<>(deltas.size() * 5);
+        deltas.forEach((id, delta) -> {
+            args.add(id);
+            args.add(delta.headcount());
+            args.add(delta.salarySum());
+            args.add(delta.addedMin());
+            args.add(delta.addedMax());
+        });
+        List<Long> stale = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong(1);
+            if (deltas.get(id).invalidates(rs.getObject(2, Long.class), rs.getObject(3, Long.class))) stale.add(id);
+        }, args.toArray());
+        if (!stale.isEmpty()) refresh(stale);
+    }
+
+    /**
+     * Recomputes the counters of the given organizations from {@code employees}. Rows are locked before the
+     * recomputation reads, so concurrent writers apply their deltas on top of the result.
+     */
+    public void recompute(Collection<Long> organizationIds) {
+        if (organizationIds.isEmpty()) return;
+        Long[] ids = organizationIds.stream().distinct().sorted().toArray(Long[]::new);
+        jdbcTemplate.update("""
+                INSERT INTO organization_payroll (organization_id)
+                SELECT id FROM organizations WHERE id = ANY(?) ORDER BY id
+                ON CONFLICT (organization_id) DO NOTHING
+                """, ps -> ps.setObject(1, ids));
+        jdbcTemplate.query("""
+                SELECT organization_id FROM organization_payroll
+                WHERE organization_id = ANY(?)
+                ORDER BY organization_id
+                FOR UPDATE
+                """, rs -> {
+        }, (Object) ids);
+        refresh(List.of(ids));
+    }
+
+    /**
+     * @return ids of organizations whose counters differ from a recomputation, in one snapshot
+     */
+    public List<Long> findDrifted() {
+        return jdbcTemplate.queryForList("""
+                SELECT coalesce(a.organization_id, p.organization_id)
+                FROM (SELECT organization_id, count(*) AS headcount, sum(salary) AS salary_sum,
+                             min(salary) AS salary_min, max(salary) AS salary_max
+                      FROM employees
+                      WHERE organization_id IS NOT NULL
+                      GROUP BY organization_id) a
+                FULL JOIN organization_payroll p ON p.organization_id = a.organization_id
+                WHERE coalesce(a.headcount, 0) <> coalesce(p.headcount, 0)
+                   OR coalesce(a.salary_sum, 0) <> coalesce(p.salary_sum, 0)
+                   OR a.salary_min IS DISTINCT FROM p.salary_min
+                   OR a.salary_max IS DISTINCT FROM p.salary_max
+                ORDER BY 1
+                """, Long.class);
+    }
+
+    private void refresh(List<Long> organizationIds) {
+        jdbcTemplate.update(REFRESH, ps -> ps.setObject(1, organizationIds.toArray(Long[]::new)));
+    }
+
+}
@@ -0,0 +1,111 @@
+package itmo.ivank.soa.repository;
+
+import itmo.ivank.soa.util.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Loads only the columns of a {@link FieldSet} and returns detached entities with just those attributes set.
+ */
+@Repository
+public class ProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> Page<T> findAll(Class<T> type, FieldSet fields, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = select(query, type, fields, spec, pageable.getSort(), cb);
+        var typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        List<T> content = typed.getResultList().stream().map(t -> materialize(type, fields, t)).toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(type, spec));
+    }
+
+    public <T> List<T> findAll(Class<T> type, FieldSet fields, Specification<T> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        select(query, type, fields, spec, sort, cb);
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(t -> materialize(type, fields, t))
+                .toList();
+    }
+
+    public <T> List<T> findAll(Class<T> type, FieldSet fields, Specification<T> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        select(query, type, fields, spec, sort, cb);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+                .map(t -> materialize(type, fields, t))
+                .toList();
+    }
+
+    private <T> Root<T> select(CriteriaQuery<Tuple> query, Class<T> type, FieldSet fields, Specification<T> spec,
+                               Sort sort, CriteriaBuilder cb) {
+        Root<T> root = query.from(type);
+        List<Selection<?>> selections = fields.paths().stream().<Selection<?>>map(p -> path(root, p)).toList();
+        query.multiselect(selections);
+        if (spec != null) {
+            var predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+        if (sort.isSorted()) query.orderBy(toOrders(sort, root, cb));
+        return root;
+    }
+
+    private <T> long count(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root));
+        if (spec != null) {
+            var predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, String path) {
+        Path<?> result = root;
+        for (String attribute : path.split("\\.")) {
+            result = result.get(attribute);
+        }
+        return result;
+    }
+
+    private static <T> T materialize(Class<T> type, FieldSet fields, Tuple tuple) {
+        T instance = BeanUtils.instantiateClass(type);
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(instance);
+        wrapper.setAutoGrowNestedPaths(true);
+        // nulls are skipped so that an embeddable without values stays null, as Hibernate loads it
+        for (int i = 0; i < fields.paths().size(); i++) {
+            Object value = tuple.get(i);
+            if (value != null) wrapper.setPropertyValue(fields.paths().get(i), value);
+        }
+        return instance;
+    }
+
+}
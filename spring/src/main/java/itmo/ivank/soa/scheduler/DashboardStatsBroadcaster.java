@@ -0,0 +1,25 @@
+package itmo.ivank.soa.scheduler;
+
+import itmo.ivank.soa.service.DashboardStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsBroadcaster {
+
+    private final DashboardStatsService dashboardStatsService;
+
+    @Scheduled(fixedDelayString = "${soa.dashboard.interval:PT2S}")
+    public void broadcast() {
+        try {
+            dashboardStatsService.publish();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh dashboard stats: {}", e.getMessage());
+        }
+    }
+
+}
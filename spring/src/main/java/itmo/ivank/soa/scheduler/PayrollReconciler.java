@@ -0,0 +1,34 @@
+package itmo.ivank.soa.scheduler;
+
+import itmo.ivank.soa.repository.PayrollRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Compares the maintained payroll counters with a recomputation from {@code employees} and repairs the ones that drifted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "soa.payroll", name = "reconcile-enabled", havingValue = "true", matchIfMissing = true)
+public class PayrollReconciler {
+
+    private final PayrollRepository payrollRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${soa.payroll.reconcile-interval:PT10M}",
+            initialDelayString = "${soa.payroll.reconcile-interval:PT10M}")
+    public void reconcile() {
+        List<Long> drifted = payrollRepository.findDrifted();
+        if (drifted.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> payrollRepository.recompute(drifted));
+        log.warn("Repaired payroll counters of {} organizations: {}", drifted.size(), drifted);
+    }
+
+}
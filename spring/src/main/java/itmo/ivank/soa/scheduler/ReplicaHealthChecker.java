@@ -0,0 +1,24 @@
+package itmo.ivank.soa.scheduler;
+
+import itmo.ivank.soa.datasource.ReadYourWrites;
+import itmo.ivank.soa.datasource.ReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "soa.replica", name = "enabled", havingValue = "true")
+public class ReplicaHealthChecker {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final ReadYourWrites readYourWrites;
+
+    @Scheduled(fixedDelayString = "${soa.replica.health-check-interval:PT5S}")
+    public void check() {
+        replicaRoutingDataSource.checkReplicas();
+        readYourWrites.expire();
+    }
+
+}
@@ -0,0 +1,38 @@
+package itmo.ivank.soa.scheduler;
+
+import itmo.ivank.soa.config.SoftDeleteProperties;
+import itmo.ivank.soa.repository.OrganizationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "soa.soft-delete", name = "enabled", havingValue = "true")
+public class TombstonePurger {
+
+    private final OrganizationRepository organizationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SoftDeleteProperties properties;
+
+    @Scheduled(fixedDelayString = "${soa.soft-delete.purge-interval:PT1M}")
+    public void purge() {
+        Instant deletedBefore = Instant.now().minus(properties.retention());
+        int batchSize = Math.max(1, properties.purgeBatchSize());
+        int total = 0;
+        Integer purged;
+        do {
+            purged = transactionTemplate.execute(status ->
+                    organizationRepository.purgeTombstones(deletedBefore, batchSize));
+            total += purged == null ? 0 : purged;
+        } while (purged != null && purged == batchSize);
+        if (total > 0) log.info("Purged {} soft-deleted organizations", total);
+    }
+
+}
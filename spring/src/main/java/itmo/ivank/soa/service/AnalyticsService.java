@@ -0,0 +1,104 @@
+package itmo.ivank.soa.service;
+
+import itmo.ivank.soa.analytics.ColumnStats;
+import itmo.ivank.soa.analytics.NumericColumn;
+import itmo.ivank.soa.analytics.OrganizationColumns;
+import itmo.ivank.soa.dto.ColumnSummary;
+import itmo.ivank.soa.dto.Histogram;
+import itmo.ivank.soa.dto.PercentileValue;
+import itmo.ivank.soa.dto.Percentiles;
+import itmo.ivank.soa.dto.TownCount;
+import itmo.ivank.soa.dto.TownCountResponse;
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+import itmo.ivank.soa.repository.AnalyticsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numeric reports over organizations, answered from {@link OrganizationColumns} when they are loaded
+ * and with SQL aggregates otherwise.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    private static final int MAX_BUCKETS = 1000;
+    private static final int MAX_PERCENTILES = 100;
+
+    private final OrganizationColumns columns;
+    private final AnalyticsRepository analyticsRepository;
+
+    @Transactional(readOnly = true)
+    public ColumnSummary summary(String field) {
+        var column = NumericColumn.of(field);
+        ColumnStats stats = stats(column);
+        return new ColumnSummary(column.field(), stats.count(), stats.sum(), orNull(stats.min()), orNull(stats.max()),
+                stats.count() == 0 ? null : stats.sum() / stats.count());
+    }
+
+    @Transactional(readOnly = true)
+    public Histogram histogram(String field, Integer buckets, Double min, Double max) {
+        var column = NumericColumn.of(field);
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new InvalidSearchQueryException("Number of buckets must be between 1 and " + MAX_BUCKETS);
+        }
+        if (min == null || max == null) {
+            ColumnStats stats = stats(column);
+            if (stats.count() == 0) return new Histogram(column.field(), min, max, Arrays.stream(new long[buckets]).boxed().toList());
+            if (min == null) min = stats.min();
+            if (max == null) max = stats.max();
+        }
+        if (!Double.isFinite(min) || !Double.isFinite(max)) {
+            throw new InvalidSearchQueryException("Histogram min and max must be finite numbers");
+        }
+        if (min > max) throw new InvalidSearchQueryException("Histogram min must not exceed max");
+        long[] counts = columns.isReady()
+                ? columns.histogram(column, buckets, min, max)
+                : analyticsRepository.histogram(column, buckets, min, max);
+        return new Histogram(column.field(), min, max, Arrays.stream(counts).boxed().toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Percentiles percentiles(String field, List<Double> fractions) {
+        var column = NumericColumn.of(field);
+        if (fractions == null || fractions.isEmpty() || fractions.size() > MAX_PERCENTILES) {
+            throw new InvalidSearchQueryException("Between 1 and " + MAX_PERCENTILES + " percentiles are required");
+        }
+        double[] p = new double[fractions.size()];
+        for (int i = 0; i < p.length; i++) {
+            Double fraction = fractions.get(i);
+            if (fraction == null || !(fraction >= 0 && fraction <= 1)) {
+                throw new InvalidSearchQueryException("Percentile " + fraction + " is not between 0 and 1");
+            }
+            p[i] = fraction;
+        }
+        double[] values = columns.isReady() ? columns.percentiles(column, p) : analyticsRepository.percentiles(column, p);
+        List<PercentileValue> result = new ArrayList<>(p.length);
+        for (int i = 0; i < p.length; i++) result.add(new PercentileValue(p[i], orNull(values[i])));
+        return new Percentiles(column.field(), result);
+    }
+
+    @Transactional(readOnly = true)
+    public TownCountResponse countByTown() {
+        Map<String, Long> counts = columns.isReady() ? columns.countByTown() : analyticsRepository.countByTown();
+        return new TownCountResponse(counts.entrySet().stream()
+                .map(e -> new TownCount(e.getKey(), e.getValue()))
+                .sorted((a, b) -> a.town().compareTo(b.town()))
+                .toList());
+    }
+
+    private ColumnStats stats(NumericColumn column) {
+        return columns.isReady() ? columns.stats(column) : analyticsRepository.stats(column);
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+}
@@ -0,0 +1,154 @@
+package itmo.ivank.soa.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import itmo.ivank.soa.config.DashboardProperties;
+import itmo.ivank.soa.dto.DashboardStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes turnover and type counts to dashboard subscribers. The stats are computed at most once per
+ * {@code soa.dashboard.interval} regardless of the number of subscribers, and one serialized snapshot is
+ * sent to all of them, only when it differs from the previous one.
+ * <p>
+ * The sends block on the subscriber's connection, so they run on a dedicated executor, at most one per
+ * subscriber at a time. A subscriber that cannot keep up skips the snapshots that were superseded while its
+ * previous send was stuck, and neither the scheduler nor the other subscribers wait for it.
+ */
+@Service
+@Slf4j
+public class DashboardStatsService {
+
+    static final String EVENT_NAME = "stats";
+
+    private final OrganizationService organizationService;
+    private final DashboardProperties properties;
+    private final XmlMapper xmlMapper;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender;
+
+    private volatile String snapshot;
+    private long lastSentNanos = System.nanoTime();
+
+    public DashboardStatsService(OrganizationService organizationService, DashboardProperties properties,
+                                 Jackson2ObjectMapperBuilder mapperBuilder) {
+        this.organizationService = organizationService;
+        this.properties = properties;
+        this.xmlMapper = mapperBuilder.createXmlMapper(true).build();
+        var threads = new AtomicInteger();
+        this.sender = Executors.newCachedThreadPool(task -> {
+            var thread = new Thread(task, "dashboard-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe() {
+        var emitter = new SseEmitter(properties.emitterTimeout().toMillis());
+        var subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // under the publish lock, so that the first event is the current snapshot and no later one is missed
+        synchronized (this) {
+            String current = snapshot;
+            if (current == null) current = refresh();
+            subscriber.offer(SseEmitter.event().name(EVENT_NAME).data(current), true);
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Recomputes the stats and sends them to every subscriber if they changed, or sends a heartbeat comment
+     * if nothing was sent for {@code soa.dashboard.heartbeat-interval}.
+     */
+    public synchronized void publish() {
+        if (subscribers.isEmpty()) {
+            // without subscribers nobody keeps the snapshot current, so the next one recomputes it
+            snapshot = null;
+            return;
+        }
+        String previous = snapshot;
+        String current = refresh();
+        if (!current.equals(previous)) {
+            broadcast(SseEmitter.event().name(EVENT_NAME).data(current), true);
+        } else if (System.nanoTime() - lastSentNanos >= properties.heartbeatInterval().toNanos()) {
+            // a heartbeat must not replace a snapshot that is still waiting to be sent
+            broadcast(SseEmitter.event().comment("heartbeat"), false);
+        }
+    }
+
+    private String refresh() {
+        var stats = new DashboardStats(organizationService.getTotalTurnover(),
+                organizationService.getOrganizationTypesCount());
+        try {
+            snapshot = xmlMapper.writeValueAsString(stats);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return snapshot;
+    }
+
+    private void broadcast(SseEmitter.SseEventBuilder event, boolean replace) {
+        lastSentNanos = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event, replace);
+        }
+    }
+
+    /**
+     * Holds the latest event not yet sent to one emitter. Only the sender that finds the slot empty starts a
+     * send, and it keeps sending until the slot stays empty, so the emitter is written by one thread at a time.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicReference<SseEmitter.SseEventBuilder> pending = new AtomicReference<>();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event, boolean replace) {
+            if (replace ? pending.getAndSet(event) == null : pending.compareAndSet(null, event)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event = pending.get();
+            while (event != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+                if (pending.compareAndSet(event, null)) return;
+                event = pending.get();
+            }
+        }
+
+    }
+
+}
@@ -1,77 +1,231 @@
 package itmo.ivank.soa.service;
 
+import itmo.ivank.soa.cache.CacheNames;
+import itmo.ivank.soa.cache.ChangeNotifier;
+import itmo.ivank.soa.cache.EntityKind;
+import itmo.ivank.soa.config.BatchProperties;
+import itmo.ivank.soa.datasource.ReplicaRoutingDataSource;
+import itmo.ivank.soa.dto.DeleteResult;
+import itmo.ivank.soa.dto.EmployeeQuery;
 import itmo.ivank.soa.dto.EmployeeRequest;
+import itmo.ivank.soa.dto.EmployeesByIds;
 import itmo.ivank.soa.dto.EmployeesList;
+import itmo.ivank.soa.dto.EmployeesSlice;
 import itmo.ivank.soa.entity.Employee;
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
 import itmo.ivank.soa.repository.EmployeeRepository;
 import itmo.ivank.soa.repository.OrganizationRepository;
-import jakarta.transaction.Transactional;
+import itmo.ivank.soa.repository.PayrollRepository;
+import itmo.ivank.soa.repository.ProjectionRepository;
+import itmo.ivank.soa.util.Batches;
+import itmo.ivank.soa.util.FieldSet;
+import itmo.ivank.soa.util.KeysetCursor;
+import itmo.ivank.soa.util.PayrollChanges;
+import itmo.ivank.soa.util.SortBuilder;
+import itmo.ivank.soa.util.SpecificationBuilder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "name", String.class,
+            "salary", Long.class,
+            "organization.id", Long.class);
+
     private final EmployeeRepository employeeRepository;
     private final OrganizationRepository organizationRepository;
+    private final ProjectionRepository projectionRepository;
+    private final PayrollRepository payrollRepository;
+    private final BatchProperties batchProperties;
+    private final ChangeNotifier changeNotifier;
+    private final TransactionRetry transactionRetry;
 
     @Transactional
     public Employee create(EmployeeRequest dto) {
-        var org = organizationRepository.findById(dto.organizationId()).orElseThrow();
+        var changes = new PayrollChanges();
+        var employee = insert(dto, changes);
+        applyPayroll(changes);
+        changeNotifier.publish(EntityKind.EMPLOYEE, employee.getId());
+        return employee;
+    }
+
+    @Transactional
+    public Employee update(Long id, EmployeeRequest dto) {
+        var changes = new PayrollChanges();
+        var employee = apply(id, dto, changes);
+        applyPayroll(changes);
+        changeNotifier.publish(EntityKind.EMPLOYEE, id);
+        return employee;
+    }
+
+    private Employee insert(EmployeeRequest dto, PayrollChanges changes) {
+        // locked, so that an acquisition of the organization deletes it either before or after the employee
+        var org = organizationRepository.lockKeyById(dto.organizationId()).orElseThrow();
         var employee = Employee.builder()
                 .name(dto.name())
                 .salary(dto.salary())
                 .organization(org)
                 .build();
+        changes.hired(org.getId(), dto.salary());
         return employeeRepository.save(employee);
     }
 
-    @Transactional
-    public Employee update(Long id, EmployeeRequest dto) {
+    private Employee apply(Long id, EmployeeRequest dto, PayrollChanges changes) {
         var employee =  employeeRepository.findById(id).orElseThrow();
+        if (dto.version() != null && dto.version() != employee.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        boolean moved = !Objects.equals(employee.getOrganization().getId(), dto.organizationId());
+        // an employee moved into an organization is locked in like a new one
+        var org = (moved ? organizationRepository.lockKeyById(dto.organizationId())
+                : organizationRepository.findById(dto.organizationId())).orElseThrow();
+        if (moved || !Objects.equals(employee.getSalary(), dto.salary())) {
+            changes.left(employee.getOrganization().getId(), employee.getSalary());
+            changes.hired(org.getId(), dto.salary());
+        }
         employee.setName(dto.name());
         employee.setSalary(dto.salary());
-        employee.setOrganization(organizationRepository.findById(dto.organizationId()).orElseThrow());
+        employee.setOrganization(org);
         return employeeRepository.save(employee);
     }
 
+    private void applyPayroll(PayrollChanges changes) {
+        // the counters are recomputed with plain SQL, which must see the pending employee changes
+        employeeRepository.flush();
+        payrollRepository.apply(changes);
+    }
+
     public Employee getById(Long id) {
         return employeeRepository.findById(id).orElseThrow();
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.EMPLOYEES, key = "#id", condition = "#fields == null")
+    public Employee getById(Long id, FieldSet fields) {
+        // cached, so read from the primary
+        if (fields == null) return ReplicaRoutingDataSource.onPrimary(() -> getById(id));
+        Specification<Employee> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return projectionRepository.findAll(Employee.class, fields, byId, Sort.unsorted())
+                .stream().findFirst().orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeesByIds getByIds(long[] ids) {
+        Long[] distinct = Batches.distinctIds(ids, batchProperties.maxGetIds());
+        Map<Long, Employee> found = employeeRepository.findAllWithOrganizationByIdArray(distinct).stream()
+                .collect(Collectors.toMap(Employee::getId, e -> e));
+        List<Employee> employees = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            var employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new EmployeesByIds(employees, missing);
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeesSlice query(EmployeeQuery query, String cursor, Integer size, FieldSet fields) {
+        if (size <= 0) throw new InvalidSearchQueryException("Size must be positive");
+        Sort sort = SortBuilder.buildKeysetSort(query.sort(), SORT_KEYS.keySet(), "id");
+        List<Object> after = KeysetCursor.parse(cursor, sort, SORT_KEYS);
+        Specification<Employee> spec = SpecificationBuilder.buildEmployeeSpecification(query);
+        if (after != null) spec = spec.and(SpecificationBuilder.buildKeysetSpecification(sort, after));
+        List<Employee> employees;
+        if (fields == null) {
+            employees = employeeRepository.findBy(spec, q -> q.sortBy(sort).limit(size + 1).all());
+        } else {
+            var keys = sort.stream().map(Sort.Order::getProperty).toList();
+            employees = projectionRepository.findAll(Employee.class, fields.including(keys), spec, sort, size + 1);
+        }
+        if (employees.size() <= size) return new EmployeesSlice(employees, size, null);
+        employees = employees.subList(0, size);
+        return new EmployeesSlice(employees, size, KeysetCursor.after(employees.get(size - 1), sort).encode());
+    }
+
     @Transactional
     public void deleteById(Long id) {
         var employee = employeeRepository.findById(id).orElseThrow();
+        var changes = new PayrollChanges();
+        changes.left(employee.getOrganization().getId(), employee.getSalary());
         employeeRepository.delete(employee);
+        applyPayroll(changes);
+        changeNotifier.publish(EntityKind.EMPLOYEE, id);
     }
 
-    @Transactional
     public EmployeesList createBatch(List<EmployeeRequest> batch) {
-        List<Employee> employees = new ArrayList<>();
-        for (var dto : batch) {
-            employees.add(create(dto));
-        }
-        return new EmployeesList(employees);
+        return transactionRetry.execute(() -> {
+            List<Employee> employees = new ArrayList<>();
+            var changes = new PayrollChanges();
+            for (var dto : batch) {
+                employees.add(insert(dto, changes));
+            }
+            applyPayroll(changes);
+            changeNotifier.publish(EntityKind.EMPLOYEE, employees.stream().map(Employee::getId).toList());
+            return new EmployeesList(employees);
+        });
     }
 
-    @Transactional
-    public void deleteBatch(List<Long> ids) {
-        employeeRepository.deleteAllById(ids);
+    /**
+     * Deletes the employees chunk by chunk in ascending id order, sorting {@code ids} in place.
+     */
+    public DeleteResult deleteBatch(long[] ids) {
+        Arrays.sort(ids);
+        return transactionRetry.execute(() -> {
+            var changes = new PayrollChanges();
+            var result = new DeleteResult(employeeRepository.deleteAllByIds(ids, batchProperties.deleteChunkSize(), changes));
+            payrollRepository.apply(changes);
+            changeNotifier.publish(EntityKind.EMPLOYEE, ids);
+            return result;
+        });
     }
 
-    @Transactional
+    /**
+     * Applies the updates in ascending id order, keeping the input order for duplicates, and returns the employees
+     * in the order of the batch.
+     */
     public EmployeesList updateBatch(List<EmployeeRequest> batch) {
-        List<Employee> employees = new ArrayList<>();
-        for (var emp : batch) {
-            if (emp.id() == null || !employeeRepository.existsById(emp.id())) throw new NoSuchElementException();
-            employees.add(update(emp.id(), emp));
-        }
-        return new EmployeesList(employees);
+        return transactionRetry.execute(() -> {
+            if (batch.stream().anyMatch(emp -> emp.id() == null)) throw new NoSuchElementException();
+            Long[] ids = batch.stream().map(EmployeeRequest::id).distinct().sorted().toArray(Long[]::new);
+            if (employeeRepository.lockAllByIds(ids) != ids.length) throw new NoSuchElementException();
+            List<Integer> order = IntStream.range(0, batch.size()).boxed()
+                    .sorted(Comparator.comparing(i -> batch.get(i).id()))
+                    .toList();
+            Employee[] employees = new Employee[batch.size()];
+            var changes = new PayrollChanges();
+            for (int i : order) {
+                var emp = batch.get(i);
+                employees[i] = apply(emp.id(), emp, changes);
+            }
+            applyPayroll(changes);
+            changeNotifier.publish(EntityKind.EMPLOYEE, Arrays.asList(ids));
+            return new EmployeesList(Arrays.asList(employees));
+        });
     }
 
 }
@@ -0,0 +1,188 @@
+package itmo.ivank.soa.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import itmo.ivank.soa.config.BatchProperties;
+import itmo.ivank.soa.dto.BatchSummary;
+import itmo.ivank.soa.dto.ChunkResult;
+import itmo.ivank.soa.dto.ChunkStatus;
+import itmo.ivank.soa.dto.EmployeeRequest;
+import itmo.ivank.soa.exception.GlobalExceptionHandler;
+import itmo.ivank.soa.exception.InvalidBatchException;
+import itmo.ivank.soa.exception.InvalidOperationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies employee batches of unbounded size: the body is read one element at a time, every
+ * chunk is committed in its own transaction and its outcome is written to the response right away.
+ */
+@Slf4j
+@Service
+public class EmployeeStreamingService {
+
+    public enum Operation { CREATE, UPDATE, DELETE }
+
+    private static final byte[] ROOT_START = "<batchResult>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ROOT_END = "</batchResult>".getBytes(StandardCharsets.UTF_8);
+
+    private final EmployeeService employeeService;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
+    private final XmlMapper xmlMapper;
+
+    public EmployeeStreamingService(EmployeeService employeeService, Validator validator,
+                                    BatchProperties batchProperties, Jackson2ObjectMapperBuilder mapperBuilder) {
+        this.employeeService = employeeService;
+        this.validator = validator;
+        this.batchProperties = batchProperties;
+        this.xmlMapper = mapperBuilder.createXmlMapper(true).build();
+    }
+
+    public void process(Operation operation, InputStream body, OutputStream out, Integer chunkSize) throws IOException {
+        int size = chunkSize != null ? chunkSize : batchProperties.streamChunkSize();
+        if (size <= 0) throw new InvalidBatchException("Chunk size must be positive");
+
+        JsonParser parser;
+        JsonToken root;
+        try {
+            parser = xmlMapper.getFactory().createParser(body);
+            root = parser.nextToken();
+        } catch (JsonProcessingException e) {
+            throw new InvalidBatchException("Malformed batch body: " + e.getOriginalMessage());
+        }
+
+        var progress = new Progress(out);
+        out.write(ROOT_START);
+        List<Object> chunk = new ArrayList<>(size);
+        try {
+            if (root == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    chunk.add(operation == Operation.DELETE
+                            ? xmlMapper.readValue(parser, Long.class)
+                            : xmlMapper.readValue(parser, EmployeeRequest.class));
+                    if (chunk.size() == size) {
+                        progress.report(apply(operation, chunk, progress));
+                        chunk = new ArrayList<>(size);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) progress.report(apply(operation, chunk, progress));
+            progress.complete = true;
+        } catch (JsonProcessingException e) {
+            // the rest of the body is unreadable, so the pending items are dropped and processing stops
+            progress.report(new ChunkResult(progress.chunks, progress.items, chunk.size(), ChunkStatus.ROLLED_BACK,
+                    "Malformed batch body: " + e.getOriginalMessage()));
+        }
+        out.write(xmlMapper.writeValueAsBytes(new BatchSummary(progress.chunks, progress.committed,
+                progress.rolledBack, progress.complete)));
+        out.write(ROOT_END);
+        out.flush();
+    }
+
+    private ChunkResult apply(Operation operation, List<Object> chunk, Progress progress) {
+        String invalid = validate(operation, chunk, progress.items);
+        if (invalid != null) {
+            return new ChunkResult(progress.chunks, progress.items, chunk.size(), ChunkStatus.ROLLED_BACK, invalid);
+        }
+        try {
+            // every batch call commits in a transaction of its own
+            switch (operation) {
+                case CREATE -> employeeService.createBatch(requests(chunk));
+                case UPDATE -> employeeService.updateBatch(requests(chunk));
+                case DELETE -> employeeService.deleteBatch(chunk.stream().mapToLong(id -> (Long) id).toArray());
+            }
+            return new ChunkResult(progress.chunks, progress.items, chunk.size(), ChunkStatus.COMMITTED, null);
+        } catch (Exception e) {
+            return new ChunkResult(progress.chunks, progress.items, chunk.size(), ChunkStatus.ROLLED_BACK,
+                    failure(e, progress.chunks));
+        }
+    }
+
+    /**
+     * Reports a failed chunk with the message a single request would get. Other failures may carry SQL and data in
+     * their messages, so they are only logged.
+     */
+    private static String failure(Exception e, int chunk) {
+        if (e instanceof NoSuchElementException) return Objects.requireNonNullElse(e.getMessage(), "Not found");
+        if (e instanceof InvalidOperationException) return e.getMessage();
+        if (e instanceof PessimisticLockingFailureException) return GlobalExceptionHandler.DATA_BUSY;
+        if (e instanceof OptimisticLockingFailureException) return GlobalExceptionHandler.DATA_CHANGED;
+        if (e instanceof DataIntegrityViolationException) return GlobalExceptionHandler.DATA_CONFLICT;
+        log.error("Chunk {} failed", chunk, e);
+        return "Chunk failed";
+    }
+
+    private String validate(Operation operation, List<Object> chunk, long firstItem) {
+        for (int i = 0; i < chunk.size(); i++) {
+            Object item = chunk.get(i);
+            String message = null;
+            if (item == null) {
+                message = "Empty item";
+            } else if (operation != Operation.DELETE) {
+                Set<ConstraintViolation<Object>> violations = validator.validate(item);
+                if (!violations.isEmpty()) {
+                    message = violations.stream()
+                            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("\n"));
+                }
+            }
+            if (message != null) return "Item " + (firstItem + i) + ": " + message;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<EmployeeRequest> requests(List<Object> chunk) {
+        return (List<EmployeeRequest>) (List<?>) chunk;
+    }
+
+    private class Progress {
+
+        private final OutputStream out;
+        private int chunks;
+        private long items;
+        private long committed;
+        private long rolledBack;
+        private boolean complete;
+
+        Progress(OutputStream out) {
+            this.out = out;
+        }
+
+        void report(ChunkResult result) throws IOException {
+            if (result.status() == ChunkStatus.COMMITTED) {
+                committed += result.size();
+            } else {
+                rolledBack += result.size();
+            }
+            chunks++;
+            items += result.size();
+            out.write(xmlMapper.writeValueAsBytes(result));
+            out.flush();
+        }
+
+    }
+
+}
@@ -1,38 +1,111 @@
 package itmo.ivank.soa.service;
 
+import itmo.ivank.soa.analytics.NumericColumn;
+import itmo.ivank.soa.analytics.OrganizationColumns;
+import itmo.ivank.soa.cache.CacheNames;
+import itmo.ivank.soa.cache.ChangeNotifier;
+import itmo.ivank.soa.cache.EntityKind;
+import itmo.ivank.soa.config.BatchProperties;
+import itmo.ivank.soa.config.SoftDeleteProperties;
+import itmo.ivank.soa.datasource.ReplicaRoutingDataSource;
 import itmo.ivank.soa.dto.*;
+import itmo.ivank.soa.entity.Employee;
 import itmo.ivank.soa.entity.Organization;
 import itmo.ivank.soa.entity.OrganizationType;
+import itmo.ivank.soa.exception.InvalidBatchException;
+import itmo.ivank.soa.exception.InvalidOperationException;
 import itmo.ivank.soa.exception.InvalidSearchQueryException;
 import itmo.ivank.soa.repository.EmployeeRepository;
+import itmo.ivank.soa.repository.OrganizationBatchRepository;
+import itmo.ivank.soa.repository.OrganizationLockRepository;
 import itmo.ivank.soa.repository.OrganizationRepository;
+import itmo.ivank.soa.repository.PayrollRepository;
+import itmo.ivank.soa.repository.ProjectionRepository;
+import itmo.ivank.soa.util.AggregateBuilder;
+import itmo.ivank.soa.util.Batches;
+import itmo.ivank.soa.util.FieldSet;
+import itmo.ivank.soa.util.FullNameCursor;
 import itmo.ivank.soa.util.SpecificationBuilder;
 import itmo.ivank.soa.util.SortBuilder;
+import jakarta.persistence.Tuple;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class OrganizationService {
 
+    private static final int MAX_AGGREGATE_GROUPS = 10000;
+
     private final OrganizationRepository organizationRepository;
+    private final ProjectionRepository projectionRepository;
     private final EmployeeRepository employeeRepository;
+    private final PayrollRepository payrollRepository;
+    private final OrganizationLockRepository organizationLockRepository;
+    private final TransactionRetry transactionRetry;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
+    private final SoftDeleteProperties softDeleteProperties;
+    private final ChangeNotifier changeNotifier;
+    private final OrganizationColumns organizationColumns;
 
     public Organization getById(Long id) {
         return organizationRepository.findById(id).orElseThrow();
     }
 
-    public OrganizationsPage getAll(Integer page, Integer size) {
-        Page<Organization> p = organizationRepository.findAll(
-                PageRequest.of(page - 1, size, Sort.by(Sort.Direction.ASC, "id")));
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.ORGANIZATIONS, key = "#id", condition = "#fields == null")
+    public Organization getById(Long id, FieldSet fields) {
+        // cached, so read from the primary
+        if (fields == null) return ReplicaRoutingDataSource.onPrimary(() -> getById(id));
+        Specification<Organization> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return projectionRepository.findAll(Organization.class, fields, byId, Sort.unsorted())
+                .stream().findFirst().orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public OrganizationsByIds getByIds(long[] ids) {
+        Long[] distinct = Batches.distinctIds(ids, batchProperties.maxGetIds());
+        Map<Long, Organization> found = organizationRepository.findAllByIdArray(distinct).stream()
+                .collect(Collectors.toMap(Organization::getId, o -> o));
+        List<Organization> organizations = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            var organization = found.get(id);
+            if (organization != null) {
+                organizations.add(organization);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new OrganizationsByIds(organizations, missing);
+    }
+
+    @Transactional(readOnly = true)
+    public OrganizationsPage getAll(Integer page, Integer size, FieldSet fields) {
+        Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.ASC, "id"));
+        Page<Organization> p = fields == null
+                ? organizationRepository.findAll(pageable)
+                : projectionRepository.findAll(Organization.class, fields, null, pageable);
         return new OrganizationsPage(
                 p.getContent(),
                 p.getNumber() + 1,
@@ -51,10 +124,17 @@ public class OrganizationService {
                 .type(dto.type())
                 .officialAddress(dto.officialAddress())
                 .build();
-        return organizationRepository.save(organization);
+        var saved = organizationRepository.save(organization);
+        changeNotifier.publish(EntityKind.ORGANIZATION, saved.getId());
+        return saved;
     }
 
+    @Transactional
     public Organization createRaw(OrganizationRequest dto) {
+        if (dto.id() != null && organizationRepository.restoreDeleted(dto.id()) > 0) {
+            changeNotifier.publish(EntityKind.ORGANIZATION, dto.id());
+            return getById(dto.id());
+        }
         var organization = Organization.builder()
                 .id(dto.id())
                 .name(dto.name())
@@ -65,51 +145,307 @@ public class OrganizationService {
                 .type(dto.type())
                 .officialAddress(dto.officialAddress())
                 .build();
-        return organizationRepository.saveRaw(organization);
+        var saved = organizationRepository.saveRaw(organization);
+        changeNotifier.publish(EntityKind.ORGANIZATION, saved.getId());
+        return saved;
     }
 
+    @Transactional
+    public CompensationResponse compensateBatch(List<OrganizationCompensation> batch) {
+        Map<Long, Organization> organizations = new LinkedHashMap<>();
+        Map<Long, Employee> employees = new LinkedHashMap<>();
+        for (var item : batch) {
+            var dto = item.organization();
+            if (dto.id() == null) throw new InvalidBatchException("Organization id is required for compensation");
+            var organization = toOrganization(dto);
+            organizations.put(dto.id(), organization);
+            if (item.employees() == null) continue;
+            for (var e : item.employees()) {
+                if (e.id() == null) throw new InvalidBatchException("Employee id is required for compensation");
+                employees.put(e.id(), Employee.builder()
+                        .id(e.id())
+                        .name(e.name())
+                        .salary(e.salary())
+                        .organization(organization)
+                        .build());
+            }
+        }
+
+        int chunkSize = Math.min(batchProperties.restoreChunkSize(), OrganizationBatchRepository.MAX_ROWS_PER_STATEMENT);
+        Set<Long> restored = new LinkedHashSet<>();
+        for (var chunk : Batches.partition(new ArrayList<>(organizations.values()), chunkSize)) {
+            restored.addAll(organizationRepository.restoreAll(chunk));
+        }
+        Set<Long> payrollAffected = new TreeSet<>(organizations.keySet());
+        if (!employees.isEmpty()) {
+            payrollAffected.addAll(employeeRepository.findOrganizationIdsByIdArray(
+                    employees.keySet().toArray(Long[]::new)));
+        }
+        int relinked = 0;
+        for (var chunk : Batches.partition(new ArrayList<>(employees.values()), chunkSize)) {
+            relinked += employeeRepository.relinkAll(chunk);
+        }
+        if (!restored.isEmpty()) organizationRepository.advanceIdSequence();
+        if (relinked > 0) {
+            employeeRepository.advanceIdSequence();
+            payrollRepository.recompute(payrollAffected);
+        }
+        changeNotifier.publish(EntityKind.ORGANIZATION, restored);
+        if (relinked > 0) changeNotifier.publish(EntityKind.EMPLOYEE, employees.keySet());
+
+        List<Long> alreadyPresent = organizations.keySet().stream()
+                .filter(id -> !restored.contains(id))
+                .toList();
+        return new CompensationResponse(new ArrayList<>(restored), alreadyPresent, relinked);
+    }
+
+    @Transactional
     public Organization update(Long id, OrganizationRequest dto) {
         var organization = getById(id);
+        checkVersion(organization, dto.version());
         organization.setName(dto.name());
         organization.setCoordinates(dto.coordinates());
         organization.setAnnualTurnover(dto.annualTurnover());
         organization.setFullName(dto.fullName());
         organization.setType(dto.type());
         organization.setOfficialAddress(dto.officialAddress());
-        return organizationRepository.save(organization);
+        var saved = organizationRepository.save(organization);
+        changeNotifier.publish(EntityKind.ORGANIZATION, id);
+        return saved;
+    }
+
+    /**
+     * Adds to the turnover with a single conditional update instead of a read, compute and write.
+     */
+    @Transactional
+    public Organization addTurnover(Long id, TurnoverIncrement increment) {
+        if (organizationRepository.addTurnover(id, increment.delta(), increment.version()) == 0) {
+            checkVersion(getById(id), increment.version());
+            throw new InvalidOperationException("Annual turnover must stay positive and within the float range");
+        }
+        changeNotifier.publish(EntityKind.ORGANIZATION, id);
+        return getById(id);
+    }
+
+    private static void checkVersion(Organization organization, Long version) {
+        if (version != null && version != organization.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Organization.class, organization.getId());
+        }
+    }
+
+    public UpsertResponse upsertBatch(List<OrganizationRequest> batch) {
+        UpsertResult[] results = new UpsertResult[batch.size()];
+        // keyed by id, items without an id are keyed by their index and never collide
+        Map<Object, Integer> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            var dto = batch.get(i);
+            Set<ConstraintViolation<OrganizationRequest>> violations = dto == null ? Set.of() : validator.validate(dto);
+            if (dto == null || !violations.isEmpty()) {
+                String message = dto == null ? "Empty item" : violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("\n"));
+                results[i] = new UpsertResult(i, dto == null ? null : dto.id(), UpsertStatus.FAILED, message);
+                continue;
+            }
+            Integer previous = accepted.put(dto.id() != null ? dto.id() : i, i);
+            if (previous != null) {
+                results[previous] = new UpsertResult(previous, dto.id(), UpsertStatus.FAILED,
+                        "Superseded by item " + i + " with the same id");
+            }
+        }
+        List<Integer> indices = new ArrayList<>(accepted.values());
+
+        int chunkSize = Math.min(Math.max(1, batchProperties.upsertChunkSize()),
+                OrganizationBatchRepository.MAX_ROWS_PER_STATEMENT);
+        for (int from = 0; from < indices.size(); from += chunkSize) {
+            List<Integer> chunk = indices.subList(from, Math.min(from + chunkSize, indices.size()));
+            try {
+                transactionRetry.execute(() -> {
+                    upsertChunk(batch, chunk, results);
+                    return null;
+                });
+            } catch (Exception e) {
+                log.warn("Upsert of {} organizations failed", chunk.size(), e);
+                String message = failureMessage(e);
+                for (int i : chunk) {
+                    results[i] = new UpsertResult(i, batch.get(i).id(), UpsertStatus.FAILED, message);
+                }
+            }
+        }
+
+        List<UpsertResult> list = Arrays.asList(results);
+        return new UpsertResponse(list,
+                (int) list.stream().filter(r -> r.status() == UpsertStatus.CREATED).count(),
+                (int) list.stream().filter(r -> r.status() == UpsertStatus.UPDATED).count(),
+                (int) list.stream().filter(r -> r.status() == UpsertStatus.FAILED).count());
+    }
+
+    private static String failureMessage(Exception e) {
+        if (e instanceof DataIntegrityViolationException) return "Conflicts with existing data";
+        if (e instanceof ConcurrencyFailureException) return "Busy with another operation, try again later";
+        return "Could not be saved";
+    }
+
+    private void upsertChunk(List<OrganizationRequest> batch, List<Integer> chunk, UpsertResult[] results) {
+        List<Integer> withId = new ArrayList<>();
+        List<Integer> withoutId = new ArrayList<>();
+        for (int i : chunk) {
+            (batch.get(i).id() != null ? withId : withoutId).add(i);
+        }
+        withId.sort(Comparator.comparing(i -> batch.get(i).id()));
+
+        Map<Long, Boolean> upserted = organizationRepository.upsertAll(
+                withId.stream().map(i -> toOrganization(batch.get(i))).toList());
+        boolean insertedWithId = false;
+        for (int i : withId) {
+            Long id = batch.get(i).id();
+            boolean inserted = upserted.get(id);
+            insertedWithId |= inserted;
+            results[i] = new UpsertResult(i, id, inserted ? UpsertStatus.CREATED : UpsertStatus.UPDATED, null);
+        }
+        if (insertedWithId) organizationRepository.advanceIdSequence();
+
+        List<Long> ids = organizationRepository.insertAll(
+                withoutId.stream().map(i -> toOrganization(batch.get(i))).toList());
+        for (int k = 0; k < withoutId.size(); k++) {
+            int i = withoutId.get(k);
+            results[i] = new UpsertResult(i, ids.get(k), UpsertStatus.CREATED, null);
+        }
+        changeNotifier.publish(EntityKind.ORGANIZATION, chunk.stream().map(i -> results[i].id()).toList());
+    }
+
+    private static Organization toOrganization(OrganizationRequest dto) {
+        return Organization.builder()
+                .id(dto.id())
+                .name(dto.name())
+                .creationDate(dto.creationDate() != null ? dto.creationDate() : LocalDate.now())
+                .coordinates(dto.coordinates())
+                .annualTurnover(dto.annualTurnover())
+                .fullName(dto.fullName())
+                .type(dto.type())
+                .officialAddress(dto.officialAddress())
+                .build();
     }
 
+    @Transactional
     public void delete(Long id) {
-        var organization = getById(id);
-        organizationRepository.delete(organization);
+        remove(getById(id));
+        changeNotifier.publish(EntityKind.ORGANIZATION, id);
+    }
+
+    private void remove(Organization organization) {
+        if (softDeleteProperties.enabled()) {
+            organizationRepository.softDelete(organization.getId(), Instant.now());
+        } else {
+            organizationRepository.delete(organization);
+        }
+    }
+
+    /**
+     * Adds the turnover of {@code acquiredId} to {@code acquirerId}, moves all of its employees there and deletes it.
+     * Both organizations are locked in id order for the whole transaction, with a bounded wait, and the transaction
+     * is repeated if it still deadlocks with concurrent employee writes.
+     */
+    public Acquiring acquire(Long acquirerId, Long acquiredId) {
+        if (Objects.equals(acquirerId, acquiredId)) {
+            throw new InvalidOperationException("Organization can not acquire itself");
+        }
+        return transactionRetry.execute(() -> {
+            organizationLockRepository.lock(List.of(acquirerId, acquiredId));
+            // in id order; the acquired one also against new employees, which would otherwise be deleted with it
+            Optional<Organization> acquirer;
+            Optional<Organization> acquired;
+            if (acquirerId < acquiredId) {
+                acquirer = organizationRepository.lockById(acquirerId);
+                acquired = organizationRepository.lockForRemovalById(acquiredId);
+            } else {
+                acquired = organizationRepository.lockForRemovalById(acquiredId);
+                acquirer = organizationRepository.lockById(acquirerId);
+            }
+            if (acquirer.isEmpty() || acquired.isEmpty()) {
+                throw new NoSuchElementException("No organization with id " + (acquirer.isEmpty() ? acquirerId : acquiredId));
+            }
+
+            int moved = employeeRepository.reassignAll(acquiredId, acquirerId);
+            payrollRepository.recompute(List.of(acquirerId, acquiredId));
+            remove(acquired.get());
+            if (organizationRepository.addTurnover(acquirerId, acquired.get().getAnnualTurnover(), null) == 0) {
+                throw new InvalidOperationException("Combined annual turnover is out of the float range");
+            }
+            changeNotifier.publish(EntityKind.ORGANIZATION, List.of(acquirerId, acquiredId));
+            return new Acquiring(getById(acquirerId), acquired.get(), moved);
+        });
+    }
+
+    /**
+     * Deletes all employees of the organization while holding its lock, so that no acquisition moves them meanwhile.
+     */
+    @Transactional
+    public DeleteResult fireAll(Long id) {
+        organizationLockRepository.lock(List.of(id));
+        getById(id);
+        List<Long> fired = employeeRepository.deleteAllByOrganization(id);
+        payrollRepository.recompute(List.of(id));
+        changeNotifier.publish(EntityKind.EMPLOYEE, fired);
+        return new DeleteResult((long) fired.size());
     }
 
-    public EmployeesList getEmployees(Long id) {
+    @Transactional(readOnly = true)
+    public PayrollStats getPayroll(Long id) {
+        return payrollRepository.find(id).orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeesList getEmployees(Long id, FieldSet fields) {
         var organization = getById(id);
-        return new EmployeesList(employeeRepository.findByOrganization(organization));
+        if (fields == null) return new EmployeesList(employeeRepository.findByOrganization(organization));
+        Specification<Employee> byOrganization = (root, query, cb) -> cb.equal(root.get("organization"), organization);
+        return new EmployeesList(projectionRepository.findAll(Employee.class, fields, byOrganization, Sort.by("id")));
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.TURNOVER, condition = "!@organizationColumns.ready")
     public TurnoverResponse getTotalTurnover() {
-        List<Organization> organizations = organizationRepository.findAll();
+        if (organizationColumns.isReady()) {
+            var stats = organizationColumns.stats(NumericColumn.ANNUAL_TURNOVER);
+            return new TurnoverResponse(stats.sum(), (int) organizationColumns.count());
+        }
+        // cached, so read from the primary
+        List<Organization> organizations = ReplicaRoutingDataSource.onPrimary(organizationRepository::findAll);
         Double total = organizations.stream().map(org ->
                 Double.valueOf(org.getAnnualTurnover())).reduce(0.0, Double::sum);
         return new TurnoverResponse(total, organizations.size());
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.TYPE_COUNTS, condition = "!@organizationColumns.ready")
     public TypeCountResponse getOrganizationTypesCount() {
+        if (organizationColumns.isReady()) {
+            return new TypeCountResponse(organizationColumns.countByType().entrySet().stream()
+                    .map(e -> new TypeCount(e.getKey(), e.getValue().intValue()))
+                    .toList());
+        }
         List<OrganizationType> types = List.of(OrganizationType.values());
         List<TypeCount> typeCounts = new ArrayList<>();
-        types.forEach(type -> typeCounts.add(
-                new TypeCount(type, organizationRepository.countByType(type))));
+        // cached, so read from the primary
+        ReplicaRoutingDataSource.onPrimary(() -> {
+            types.forEach(type -> typeCounts.add(
+                    new TypeCount(type, organizationRepository.countByType(type))));
+            return null;
+        });
         return new TypeCountResponse(typeCounts);
     }
 
-    public OrganizationsPage getFiltered(Integer page, Integer size, OrganizationQuery query) {
+    @Transactional(readOnly = true)
+    public OrganizationsPage getFiltered(Integer page, Integer size, OrganizationQuery query, FieldSet fields) {
         try {
             Sort sort = SortBuilder.buildSort(query.sort(), "id");
             Pageable pageable = PageRequest.of(page - 1, size, sort);
             Specification<Organization> spec = SpecificationBuilder.buildSpecification(query);
-            Page<Organization> p = organizationRepository.findAll(spec, pageable);
+            Page<Organization> p = fields == null
+                    ? organizationRepository.findAll(spec, pageable)
+                    : projectionRepository.findAll(Organization.class, fields, spec, pageable);
             return new OrganizationsPage(
                     p.getContent(),
                     p.getNumber() + 1,
@@ -117,11 +453,82 @@ public class OrganizationService {
                     p.getTotalElements(),
                     p.getTotalPages()
             );
+        } catch (InvalidSearchQueryException e) {
+            throw e;
         } catch (Exception e) {
             throw new InvalidSearchQueryException("Invalid filters or sorting parameters");
         }
     }
 
+    @Transactional(readOnly = true)
+    public OrganizationsPage search(String text, Integer page, Integer size, OrganizationQuery query, FieldSet fields) {
+        Specification<Organization> spec = SpecificationBuilder.buildSearchSpecification(text);
+        if (query != null) spec = spec.and(SpecificationBuilder.buildSpecification(query));
+        Pageable pageable = PageRequest.of(page - 1, size);
+        Page<Organization> p = fields == null
+                ? organizationRepository.findAll(spec, pageable)
+                : projectionRepository.findAll(Organization.class, fields, spec, pageable);
+        return new OrganizationsPage(
+                p.getContent(),
+                p.getNumber() + 1,
+                p.getSize(),
+                p.getTotalElements(),
+                p.getTotalPages()
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public OrganizationsPage spatial(OrganizationSpatialQuery query, Integer page, Integer size, FieldSet fields) {
+        Specification<Organization> spec = SpecificationBuilder.buildSpatialSpecification(
+                query.field(), query.box(), query.near());
+        if (query.filter() != null) spec = spec.and(SpecificationBuilder.buildSpecification(query.filter()));
+        Pageable pageable = PageRequest.of(page - 1, size);
+        Page<Organization> p = fields == null
+                ? organizationRepository.findAll(spec, pageable)
+                : projectionRepository.findAll(Organization.class, fields, spec, pageable);
+        return new OrganizationsPage(
+                p.getContent(),
+                p.getNumber() + 1,
+                p.getSize(),
+                p.getTotalElements(),
+                p.getTotalPages()
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public AggregateResponse aggregate(OrganizationAggregateQuery query, Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_AGGREGATE_GROUPS) {
+            throw new InvalidSearchQueryException("limit must be between 1 and " + MAX_AGGREGATE_GROUPS);
+        }
+        List<String> groupBy = AggregateBuilder.parseGroupBy(query.groupBy());
+        List<AggregateBuilder.Aggregate> aggregates = AggregateBuilder.parseAggregates(query.aggregate());
+        List<Tuple> rows;
+        try {
+            Specification<Organization> spec = query.filter() == null
+                    ? null : SpecificationBuilder.buildSpecification(query.filter());
+            rows = organizationRepository.aggregate(spec, groupBy, aggregates, limit + 1);
+        } catch (InvalidSearchQueryException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidSearchQueryException("Invalid filters or aggregate parameters");
+        }
+        List<AggregateGroup> groups = new ArrayList<>(Math.min(rows.size(), limit));
+        for (var row : rows.subList(0, Math.min(rows.size(), limit))) {
+            List<GroupKey> keys = new ArrayList<>(groupBy.size());
+            for (int i = 0; i < groupBy.size(); i++) {
+                Object value = row.get(i);
+                keys.add(new GroupKey(groupBy.get(i), value == null ? null : value.toString()));
+            }
+            List<AggregateValue> values = new ArrayList<>(aggregates.size());
+            for (int i = 0; i < aggregates.size(); i++) {
+                values.add(new AggregateValue(aggregates.get(i).label(), (Number) row.get(groupBy.size() + i)));
+            }
+            groups.add(new AggregateGroup(keys, values));
+        }
+        return new AggregateResponse(groups, rows.size() > limit);
+    }
+
+    @Transactional(readOnly = true)
     public OrganizationsPage getOrganizationsLessThanFullName(String value, Integer page, Integer size) {
         Pageable pageable = PageRequest.of(page - 1, size);
         Page<Organization> p = organizationRepository.findAllByFullNameIsLessThan(value, pageable);
@@ -134,4 +541,16 @@ public class OrganizationService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public OrganizationsSlice getOrganizationsLessThanFullName(String value, String cursor, Integer size) {
+        if (size <= 0) throw new InvalidSearchQueryException("Size must be positive");
+        FullNameCursor after = FullNameCursor.parse(cursor);
+        List<Organization> organizations = after == null
+                ? organizationRepository.findFirstByFullNameLessThan(value, size + 1)
+                : organizationRepository.findNextByFullNameLessThan(value, after.fullName(), after.id(), size + 1);
+        if (organizations.size() <= size) return new OrganizationsSlice(organizations, size, null);
+        organizations = organizations.subList(0, size);
+        return new OrganizationsSlice(organizations, size, FullNameCursor.after(organizations.get(size - 1)).encode());
+    }
+
 }
@@ -0,0 +1,70 @@
+package itmo.ivank.soa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import itmo.ivank.soa.config.RetryProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs work in its own transaction and repeats it after serialization failures and deadlocks, sleeping a
+ * jittered, exponentially growing backoff in between. Lock timeouts are not retried.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionRetry {
+
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final String DEADLOCK_DETECTED = "40P01";
+
+    private final TransactionTemplate transactionTemplate;
+    private final RetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public <T> T execute(Supplier<T> work) {
+        // the enclosing transaction is already doomed and only its owner can start over
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return work.get();
+        int maxAttempts = Math.max(1, properties.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                String reason = retryReason(e);
+                if (reason == null) throw e;
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("soa.transaction.retries.exhausted", "reason", reason).increment();
+                    throw e;
+                }
+                meterRegistry.counter("soa.transaction.retries", "reason", reason).increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private void backoff(int attempt, RuntimeException failure) {
+        long initial = Math.max(1, properties.initialBackoff().toMillis());
+        long ceiling = Math.min(properties.maxBackoff().toMillis(), initial << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private static String retryReason(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                if (SERIALIZATION_FAILURE.equals(sql.getSQLState())) return "serialization";
+                if (DEADLOCK_DETECTED.equals(sql.getSQLState())) return "deadlock";
+            }
+        }
+        return null;
+    }
+
+}
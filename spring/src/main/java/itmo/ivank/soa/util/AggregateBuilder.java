@@ -0,0 +1,112 @@
+package itmo.ivank.soa.util;
+
+import itmo.ivank.soa.entity.Organization;
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.sqm.TemporalUnit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class AggregateBuilder {
+
+    public enum Function { COUNT, SUM, AVG, MIN, MAX }
+
+    /**
+     * One requested aggregate, written as {@code count}, {@code count:field} or {@code function:field}.
+     */
+    public record Aggregate(Function function, String field) {
+
+        public String label() {
+            return field == null ? function.name().toLowerCase(Locale.ROOT)
+                    : function.name().toLowerCase(Locale.ROOT) + ":" + field;
+        }
+
+    }
+
+    private static final Set<String> GROUP_FIELDS = Set.of(
+            "type", "name", "creationDate", "creationYear", "creationMonth",
+            "officialAddress.street", "officialAddress.town.name");
+
+    private static final Set<String> NUMERIC_FIELDS = Set.of(
+            "annualTurnover", "coordinates.x", "coordinates.y", "officialAddress.town.x", "officialAddress.town.y");
+
+    public static List<String> parseGroupBy(List<String> groupBy) {
+        if (groupBy == null) return List.of();
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : groupBy) {
+            if (field == null || !GROUP_FIELDS.contains(field.trim())) {
+                throw new InvalidSearchQueryException("Can not group by " + field + ", expected one of " + new TreeSet<>(GROUP_FIELDS));
+            }
+            fields.add(field.trim());
+        }
+        return new ArrayList<>(fields);
+    }
+
+    public static List<Aggregate> parseAggregates(List<String> aggregates) {
+        if (aggregates == null || aggregates.isEmpty()) return List.of(new Aggregate(Function.COUNT, null));
+        Set<Aggregate> result = new LinkedHashSet<>();
+        for (String aggregate : aggregates) {
+            if (aggregate == null || aggregate.isBlank()) {
+                throw new InvalidSearchQueryException("Empty aggregate");
+            }
+            String[] parts = aggregate.trim().split(":", 2);
+            Function function;
+            try {
+                function = Function.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidSearchQueryException("Unknown aggregate function " + parts[0] + ", expected one of count, sum, avg, min, max");
+            }
+            String field = parts.length > 1 ? parts[1].trim() : null;
+            if (field == null && function != Function.COUNT) {
+                throw new InvalidSearchQueryException("Aggregate " + aggregate + " needs a field");
+            }
+            if (field != null && !NUMERIC_FIELDS.contains(field)) {
+                throw new InvalidSearchQueryException("Can not aggregate " + field + ", expected one of " + new TreeSet<>(NUMERIC_FIELDS));
+            }
+            result.add(new Aggregate(function, field));
+        }
+        return new ArrayList<>(result);
+    }
+
+    public static Expression<?> groupExpression(Root<Organization> root, CriteriaBuilder cb, String field) {
+        var hcb = (HibernateCriteriaBuilder) cb;
+        return switch (field) {
+            case "creationYear" -> hcb.year(root.<LocalDate>get("creationDate"));
+            case "creationMonth" -> hcb.truncate(root.<LocalDate>get("creationDate"), TemporalUnit.MONTH);
+            default -> resolvePath(root, field);
+        };
+    }
+
+    public static Expression<? extends Number> aggregateExpression(Root<Organization> root, CriteriaBuilder cb,
+                                                                   Aggregate aggregate) {
+        if (aggregate.field() == null) return cb.count(root);
+        Expression<Number> path = resolvePath(root, aggregate.field());
+        return switch (aggregate.function()) {
+            case COUNT -> cb.count(path);
+            case SUM -> cb.sum(path);
+            case AVG -> cb.avg(path);
+            case MIN -> cb.min(path);
+            case MAX -> cb.max(path);
+        };
+    }
+
+    private static <T> Path<T> resolvePath(Root<?> root, String fieldPath) {
+        String[] parts = fieldPath.split("\\.");
+        Path<?> path = root;
+        for (int i = 0; i < parts.length - 1; i++) {
+            path = path.get(parts[i]);
+        }
+        return path.get(parts[parts.length - 1]);
+    }
+
+}
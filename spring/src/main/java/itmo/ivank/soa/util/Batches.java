@@ -0,0 +1,28 @@
+package itmo.ivank.soa.util;
+
+import itmo.ivank.soa.exception.InvalidBatchException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class Batches {
+
+    public static <T> List<List<T>> partition(List<T> list, int size) {
+        int chunkSize = Math.max(1, size);
+        List<List<T>> chunks = new ArrayList<>((list.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < list.size(); from += chunkSize) {
+            chunks.add(list.subList(from, Math.min(from + chunkSize, list.size())));
+        }
+        return chunks;
+    }
+
+    public static Long[] distinctIds(long[] ids, int max) {
+        Long[] distinct = Arrays.stream(ids).distinct().boxed().toArray(Long[]::new);
+        if (distinct.length > max) {
+            throw new InvalidBatchException("At most " + max + " distinct ids can be requested at once");
+        }
+        return distinct;
+    }
+
+}
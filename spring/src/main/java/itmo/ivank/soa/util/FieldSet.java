@@ -0,0 +1,92 @@
+package itmo.ivank.soa.util;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@code fields=} selection: the top-level elements to serialize and the attribute paths to select for them.
+ */
+public record FieldSet(String filterId, Set<String> fields, List<String> paths) {
+
+    public static final String ORGANIZATION_FILTER = "organizationFields";
+    public static final String EMPLOYEE_FILTER = "employeeFields";
+
+    private static final Map<String, List<String>> ORGANIZATION_PATHS = new LinkedHashMap<>();
+    private static final Map<String, List<String>> EMPLOYEE_PATHS = new LinkedHashMap<>();
+
+    static {
+        ORGANIZATION_PATHS.put("id", List.of("id"));
+        ORGANIZATION_PATHS.put("name", List.of("name"));
+        ORGANIZATION_PATHS.put("creationDate", List.of("creationDate"));
+        ORGANIZATION_PATHS.put("annualTurnover", List.of("annualTurnover"));
+        ORGANIZATION_PATHS.put("fullName", List.of("fullName"));
+        ORGANIZATION_PATHS.put("coordinates", List.of("coordinates.x", "coordinates.y"));
+        ORGANIZATION_PATHS.put("type", List.of("type"));
+        ORGANIZATION_PATHS.put("officialAddress", List.of("officialAddress.street",
+                "officialAddress.town.x", "officialAddress.town.y", "officialAddress.town.name"));
+        ORGANIZATION_PATHS.put("version", List.of("version"));
+
+        EMPLOYEE_PATHS.put("id", List.of("id"));
+        EMPLOYEE_PATHS.put("name", List.of("name"));
+        EMPLOYEE_PATHS.put("salary", List.of("salary"));
+        EMPLOYEE_PATHS.put("organization", List.of("organization"));
+        EMPLOYEE_PATHS.put("version", List.of("version"));
+    }
+
+    public static FieldSet organization(String fields) {
+        return parse(ORGANIZATION_FILTER, ORGANIZATION_PATHS, fields);
+    }
+
+    public static FieldSet employee(String fields) {
+        return parse(EMPLOYEE_FILTER, EMPLOYEE_PATHS, fields);
+    }
+
+    /**
+     * The same selection that additionally loads {@code extraPaths}, which stay hidden when rendered.
+     */
+    public FieldSet including(List<String> extraPaths) {
+        List<String> all = new ArrayList<>(paths);
+        extraPaths.stream().filter(p -> !all.contains(p)).forEach(all::add);
+        return new FieldSet(filterId, fields, all);
+    }
+
+    /**
+     * Wraps a response body so that only the selected elements are written; {@code fields} may be {@code null}.
+     */
+    public static MappingJacksonValue render(FieldSet fields, Object body) {
+        var value = new MappingJacksonValue(body);
+        if (fields != null) {
+            value.setFilters(new SimpleFilterProvider()
+                    .setFailOnUnknownId(false)
+                    .addFilter(fields.filterId(), SimpleBeanPropertyFilter.filterOutAllExcept(fields.fields())));
+        }
+        return value;
+    }
+
+    private static FieldSet parse(String filterId, Map<String, List<String>> allowed, String fields) {
+        if (fields == null || fields.isBlank()) return null;
+        Set<String> selected = new LinkedHashSet<>();
+        List<String> paths = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            field = field.trim();
+            if (field.isEmpty()) continue;
+            List<String> fieldPaths = allowed.get(field);
+            if (fieldPaths == null) {
+                throw new InvalidSearchQueryException("Unknown field: " + field + ", expected one of " + allowed.keySet());
+            }
+            if (selected.add(field)) paths.addAll(fieldPaths);
+        }
+        if (selected.isEmpty()) return null;
+        return new FieldSet(filterId, selected, paths);
+    }
+
+}
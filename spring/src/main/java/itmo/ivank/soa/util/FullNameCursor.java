@@ -0,0 +1,34 @@
+package itmo.ivank.soa.util;
+
+import itmo.ivank.soa.entity.Organization;
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in the {@code (fullName, id)} order of {@code /organizations/lt-full-name/keyset}.
+ */
+public record FullNameCursor(String fullName, Long id) {
+
+    public static FullNameCursor after(Organization organization) {
+        return new FullNameCursor(organization.getFullName(), organization.getId());
+    }
+
+    public static FullNameCursor parse(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new FullNameCursor(decoded.substring(separator + 1), Long.parseLong(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidSearchQueryException("Malformed cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + fullName).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,76 @@
+package itmo.ivank.soa.util;
+
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque position in a keyset order: the sort key values of the last returned row, each base64url-encoded,
+ * or {@value #NULL} for a null value.
+ */
+public record KeysetCursor(List<String> values) {
+
+    // not in the base64url alphabet, so it can not be confused with an encoded value
+    private static final String NULL = "~";
+
+    public static KeysetCursor after(Object row, Sort sort) {
+        var wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        return new KeysetCursor(sort.stream()
+                .map(order -> valueOf(wrapper, order.getProperty()))
+                .map(value -> value == null ? null : value.toString())
+                .toList());
+    }
+
+    private static Object valueOf(BeanWrapper wrapper, String property) {
+        try {
+            return wrapper.getPropertyValue(property);
+        } catch (NullValueInNestedPathException e) {
+            // the keys of a missing association are null, like in the SQL order
+            return null;
+        }
+    }
+
+    /**
+     * Decodes {@code cursor} into values of the {@code types} of the {@code sort} properties.
+     */
+    public static List<Object> parse(String cursor, Sort sort, Map<String, Class<?>> types) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        String[] parts = cursor.split("\\.", -1);
+        List<Sort.Order> orders = sort.toList();
+        if (parts.length != orders.size()) throw new InvalidSearchQueryException("Cursor does not match the sort: " + cursor);
+        List<Object> values = new ArrayList<>(parts.length);
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                if (parts[i].equals(NULL)) {
+                    values.add(null);
+                    continue;
+                }
+                String value = new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8);
+                values.add(DefaultConversionService.getSharedInstance()
+                        .convert(value, types.get(orders.get(i).getProperty())));
+            }
+        } catch (IllegalArgumentException | ConversionException e) {
+            throw new InvalidSearchQueryException("Malformed cursor: " + cursor);
+        }
+        return values;
+    }
+
+    public String encode() {
+        return values.stream()
+                .map(v -> v == null ? NULL
+                        : Base64.getUrlEncoder().withoutPadding().encodeToString(v.getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.joining("."));
+    }
+
+}
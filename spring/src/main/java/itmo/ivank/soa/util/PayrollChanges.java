@@ -0,0 +1,73 @@
+package itmo.ivank.soa.util;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Headcount and salary changes of organizations collected within one transaction, ordered by organization id.
+ */
+public class PayrollChanges {
+
+    private final SortedMap<Long, Delta> deltas = new TreeMap<>();
+
+    public void hired(Long organizationId, long salary) {
+        var delta = deltas.computeIfAbsent(organizationId, id -> new Delta());
+        delta.headcount++;
+        delta.salarySum += salary;
+        delta.addedMin = delta.addedMin == null ? salary : Math.min(delta.addedMin, salary);
+        delta.addedMax = delta.addedMax == null ? salary : Math.max(delta.addedMax, salary);
+    }
+
+    public void left(Long organizationId, long salary) {
+        var delta = deltas.computeIfAbsent(organizationId, id -> new Delta());
+        delta.headcount--;
+        delta.salarySum -= salary;
+        delta.removedMin = delta.removedMin == null ? salary : Math.min(delta.removedMin, salary);
+        delta.removedMax = delta.removedMax == null ? salary : Math.max(delta.removedMax, salary);
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    public SortedMap<Long, Delta> deltas() {
+        return Collections.unmodifiableSortedMap(deltas);
+    }
+
+    public static class Delta {
+
+        private long headcount;
+        private long salarySum;
+        private Long addedMin;
+        private Long addedMax;
+        private Long removedMin;
+        private Long removedMax;
+
+        public long headcount() {
+            return headcount;
+        }
+
+        public long salarySum() {
+            return salarySum;
+        }
+
+        public Long addedMin() {
+            return addedMin;
+        }
+
+        public Long addedMax() {
+            return addedMax;
+        }
+
+        /**
+         * Whether the stored minimum or maximum may belong to a removed salary and has to be recomputed.
+         */
+        public boolean invalidates(Long min, Long max) {
+            return removedMin != null && (min == null || removedMin <= min)
+                    || removedMax != null && (max == null || removedMax >= max);
+        }
+
+    }
+
+}
@@ -1,9 +1,11 @@
 package itmo.ivank.soa.util;
 
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
 import org.springframework.data.domain.Sort;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class SortBuilder {
 
@@ -15,6 +17,19 @@ public class SortBuilder {
         return Sort.by(orders);
     }
 
+    /**
+     * Builds a sort over {@code allowed} properties that ends with {@code idProperty}, as keyset pagination requires.
+     */
+    public static Sort buildKeysetSort(List<String> sortParams, Set<String> allowed, String idProperty) {
+        Sort sort = buildSort(sortParams, idProperty);
+        for (Sort.Order order : sort) {
+            if (!allowed.contains(order.getProperty())) {
+                throw new InvalidSearchQueryException("Unknown sort field " + order.getProperty() + ", expected one of " + allowed);
+            }
+        }
+        return sort.getOrderFor(idProperty) != null ? sort : sort.and(Sort.by(Sort.Direction.ASC, idProperty));
+    }
+
     private static List<Sort.Order> getOrders(List<String> sortParams) {
         List<Sort.Order> orders = new ArrayList<>();
         for (String sortParam : sortParams) {
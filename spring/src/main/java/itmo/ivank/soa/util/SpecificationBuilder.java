@@ -1,41 +1,250 @@
 package itmo.ivank.soa.util;
 
+import itmo.ivank.soa.config.FullTextFunctionContributor;
+import itmo.ivank.soa.config.SpatialFunctionContributor;
+import itmo.ivank.soa.dto.EmployeeQuery;
 import itmo.ivank.soa.dto.OrganizationQuery;
 import itmo.ivank.soa.dto.filter.AddressFilter;
+import itmo.ivank.soa.dto.filter.BoundingBox;
 import itmo.ivank.soa.dto.filter.CoordinatesFilter;
+import itmo.ivank.soa.dto.filter.FilterNode;
 import itmo.ivank.soa.dto.filter.LocationFilter;
+import itmo.ivank.soa.dto.filter.NearPoint;
 import itmo.ivank.soa.dto.filter.primitive.DateFilter;
 import itmo.ivank.soa.dto.filter.primitive.NumberFilter;
 import itmo.ivank.soa.dto.filter.primitive.StringFilter;
 import itmo.ivank.soa.dto.filter.primitive.TypeFilter;
+import itmo.ivank.soa.entity.Employee;
 import itmo.ivank.soa.entity.Organization;
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
 public class SpecificationBuilder {
 
+    public static final int MAX_FILTER_DEPTH = 8;
+    public static final int MAX_FILTER_NODES = 100;
+    public static final int MAX_SEARCH_TERMS = 16;
+
     public static Specification<Organization> buildSpecification(OrganizationQuery query) {
+        Specification<Organization> spec = buildFieldFilters(query.idFilter(), query.nameFilter(),
+                query.coordinatesFilter(), query.creationDateFilter(), query.annualTurnoverFilter(),
+                query.fullNameFilter(), query.typeFilter(), query.officialAddressFilter());
+        if (query.where() != null) {
+            checkLimits(query.where(), 1, new int[1]);
+            spec = spec.and(buildNode(query.where()));
+        }
+        return spec;
+    }
+
+    private static Specification<Organization> buildFieldFilters(NumberFilter<Long> idFilter,
+                                                                 StringFilter nameFilter,
+                                                                 CoordinatesFilter coordinatesFilter,
+                                                                 DateFilter creationDateFilter,
+                                                                 NumberFilter<Float> annualTurnoverFilter,
+                                                                 StringFilter fullNameFilter,
+                                                                 TypeFilter typeFilter,
+                                                                 AddressFilter officialAddressFilter) {
         Specification<Organization> spec = Specification.unrestricted();
+        spec = addNumberFilter(spec, "id", idFilter);
+        spec = addStringFilter(spec, "name", nameFilter);
+        spec = addCoordinatesFilter(spec, coordinatesFilter);
+        spec = addDateFilter(spec, "creationDate", creationDateFilter);
+        spec = addNumberFilter(spec, "annualTurnover", annualTurnoverFilter);
+        spec = addStringFilter(spec, "fullName", fullNameFilter);
+        spec = addTypeFilter(spec, "type", typeFilter);
+        spec = addAddressFilter(spec, officialAddressFilter);
+        return spec;
+    }
+
+    private static void checkLimits(FilterNode node, int depth, int[] nodes) {
+        if (node == null) throw new InvalidSearchQueryException("Empty filter node");
+        if (depth > MAX_FILTER_DEPTH) {
+            throw new InvalidSearchQueryException("Filter tree is deeper than " + MAX_FILTER_DEPTH + " levels");
+        }
+        if (++nodes[0] > MAX_FILTER_NODES) {
+            throw new InvalidSearchQueryException("Filter tree has more than " + MAX_FILTER_NODES + " nodes");
+        }
+        if (node.and() != null) node.and().forEach(child -> checkLimits(child, depth + 1, nodes));
+        if (node.or() != null) node.or().forEach(child -> checkLimits(child, depth + 1, nodes));
+        if (node.not() != null) checkLimits(node.not(), depth + 1, nodes);
+    }
+
+    private static Specification<Organization> buildNode(FilterNode node) {
+        Specification<Organization> spec = buildFieldFilters(node.idFilter(), node.nameFilter(),
+                node.coordinatesFilter(), node.creationDateFilter(), node.annualTurnoverFilter(),
+                node.fullNameFilter(), node.typeFilter(), node.officialAddressFilter());
+        if (node.and() != null && !node.and().isEmpty()) {
+            var children = node.and().stream().map(SpecificationBuilder::buildNode).toList();
+            spec = spec.and((root, query, cb) -> cb.and(children.stream()
+                    .map(child -> toPredicate(child, root, query, cb))
+                    .toArray(Predicate[]::new)));
+        }
+        if (node.or() != null && !node.or().isEmpty()) {
+            var children = node.or().stream().map(SpecificationBuilder::buildNode).toList();
+            spec = spec.and((root, query, cb) -> cb.or(children.stream()
+                    .map(child -> toPredicate(child, root, query, cb))
+                    .toArray(Predicate[]::new)));
+        }
+        if (node.not() != null) {
+            var child = buildNode(node.not());
+            spec = spec.and((root, query, cb) -> cb.not(toPredicate(child, root, query, cb)));
+        }
+        return spec;
+    }
+
+    // a node without conditions matches everything, also under OR and NOT
+    private static Predicate toPredicate(Specification<Organization> spec, Root<Organization> root,
+                                         CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        return predicate != null ? predicate : cb.conjunction();
+    }
+
+    /**
+     * Matches every word of {@code text} as a prefix against name, full name and address, and orders
+     * the result by rank unless the query is a count.
+     */
+    public static Specification<Organization> buildSearchSpecification(String text) {
+        String tsQuery = toPrefixTsQuery(text);
+        return (root, query, cb) -> {
+            Expression<String> value = ((HibernateCriteriaBuilder) cb).value(tsQuery);
+            if (query.getResultType() != Long.class) {
+                query.orderBy(
+                        cb.desc(cb.function(FullTextFunctionContributor.RANK, Float.class, root.get("id"), value)),
+                        cb.asc(root.get("id")));
+            }
+            return cb.isTrue(cb.function(FullTextFunctionContributor.MATCH, Boolean.class, root.get("id"), value));
+        };
+    }
+
+    private static String toPrefixTsQuery(String text) {
+        if (text == null) text = "";
+        List<String> terms = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .toList();
+        if (terms.isEmpty()) {
+            throw new InvalidSearchQueryException("Search text must contain at least one letter or digit");
+        }
+        return String.join(" & ", terms);
+    }
+
+    /**
+     * Restricts the point at {@code field} to {@code box} and/or to {@code near.radius} around {@code near},
+     * and orders by distance to {@code near} (nearest first) or by id unless the query is a count.
+     */
+    public static Specification<Organization> buildSpatialSpecification(String field, BoundingBox box, NearPoint near) {
+        if (!SpatialFunctionContributor.POINT_COLUMNS.containsKey(field)) {
+            throw new InvalidSearchQueryException("Unknown spatial field " + field + ", expected one of "
+                    + new TreeSet<>(SpatialFunctionContributor.POINT_COLUMNS.keySet()));
+        }
+        if (box == null && near == null) {
+            throw new InvalidSearchQueryException("Either box or near is required");
+        }
+        if (box != null && (box.minX() > box.maxX() || box.minY() > box.maxY())) {
+            throw new InvalidSearchQueryException("Box minimum must not exceed its maximum");
+        }
+        return (root, query, cb) -> {
+            var hcb = (HibernateCriteriaBuilder) cb;
+            Path<Long> id = root.get("id");
+            List<Predicate> predicates = new ArrayList<>();
+            if (box != null) {
+                predicates.add(cb.isTrue(cb.function(SpatialFunctionContributor.name(SpatialFunctionContributor.IN_BOX, field),
+                        Boolean.class, id, hcb.value(box.minX()), hcb.value(box.minY()), hcb.value(box.maxX()),
+                        hcb.value(box.maxY()))));
+            }
+            if (near != null && near.radius() != null) {
+                predicates.add(cb.isTrue(cb.function(SpatialFunctionContributor.name(SpatialFunctionContributor.IN_CIRCLE, field),
+                        Boolean.class, id, hcb.value(near.x()), hcb.value(near.y()), hcb.value(near.radius()))));
+            } else if (near != null) {
+                predicates.add(cb.isNotNull(resolvePath(root, field + ".x")));
+            }
+            if (query.getResultType() != Long.class) {
+                if (near != null) {
+                    query.orderBy(
+                            cb.asc(cb.function(SpatialFunctionContributor.name(SpatialFunctionContributor.DISTANCE, field),
+                                    Double.class, id, hcb.value(near.x()), hcb.value(near.y()))),
+                            cb.asc(id));
+                } else {
+                    query.orderBy(cb.asc(id));
+                }
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Employee> buildEmployeeSpecification(EmployeeQuery query) {
+        Specification<Employee> spec = Specification.unrestricted();
         spec = addNumberFilter(spec, "id", query.idFilter());
         spec = addStringFilter(spec, "name", query.nameFilter());
-        spec = addCoordinatesFilter(spec, query.coordinatesFilter());
-        spec = addDateFilter(spec, "creationDate",  query.creationDateFilter());
-        spec = addNumberFilter(spec, "annualTurnover", query.annualTurnoverFilter());
-        spec = addStringFilter(spec, "fullName", query.fullNameFilter());
-        spec = addTypeFilter(spec, "type", query.typeFilter());
-        spec = addAddressFilter(spec, query.officialAddressFilter());
+        spec = addNumberFilter(spec, "salary", query.salaryFilter());
+        if (query.organizationIds() != null && !query.organizationIds().isEmpty()) {
+            var ids = List.copyOf(query.organizationIds());
+            spec = spec.and((root, q, cb) -> resolvePath(root, "organization.id").in(ids));
+        }
         return spec;
     }
 
+    /**
+     * Matches rows that come strictly after {@code after} in {@code sort}, which must end with a unique key: a row
+     * is after it if it ties on the first keys and comes later on the next one. Nulls are ordered like Postgres does,
+     * above every value, so last ascending and first descending.
+     */
+    public static <T> Specification<T> buildKeysetSpecification(Sort sort, List<Object> after) {
+        List<Sort.Order> orders = sort.toList();
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                Object value = after.get(i);
+                boolean ascending = orders.get(i).isAscending();
+                // nothing comes after a null in ascending order
+                if (value == null && ascending) continue;
+                Predicate[] terms = new Predicate[i + 1];
+                for (int j = 0; j < i; j++) {
+                    Expression<?> path = resolvePath(root, orders.get(j).getProperty());
+                    terms[j] = after.get(j) == null ? cb.isNull(path) : cb.equal(path, after.get(j));
+                }
+                Expression<?> path = resolvePath(root, orders.get(i).getProperty());
+                if (value == null) {
+                    terms[i] = cb.isNotNull(path);
+                } else if (ascending) {
+                    terms[i] = cb.or(beyond(cb, path, value, true), cb.isNull(path));
+                } else {
+                    terms[i] = beyond(cb, path, value, false);
+                }
+                alternatives.add(cb.and(terms));
+            }
+            return cb.or(alternatives.toArray(Predicate[]::new));
+        };
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression path, Object value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, (Comparable) value) : cb.lessThan(path, (Comparable) value);
+    }
+
     public static Specification<Organization> buildFullNameLTSpecification(String value) {
         Specification<Organization> spec = Specification.unrestricted();
         return spec.and((root, query, cb) ->
                 cb.lessThan(root.get("fullName"), value));
     }
 
-    private static <T extends Number> Specification<Organization> addNumberFilter(Specification<Organization> spec, String fieldPath, NumberFilter<T> filter) {
+    private static <E, T extends Number> Specification<E> addNumberFilter(Specification<E> spec, String fieldPath, NumberFilter<T> filter) {
         if (filter == null) return spec;
         if (filter.eq() != null) {
             spec = spec.and((root, query, cb) ->
@@ -71,7 +280,7 @@ public class SpecificationBuilder {
                 .replace("_", "\\_");
     }
 
-    private static Specification<Organization> addStringFilter(Specification<Organization> spec, String fieldPath, StringFilter filter) {
+    private static <E> Specification<E> addStringFilter(Specification<E> spec, String fieldPath, StringFilter filter) {
         if (filter == null) return spec;
 
         if (filter.eq() != null && !filter.eq().isBlank()) {
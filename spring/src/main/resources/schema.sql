@@ -0,0 +1,58 @@
+CREATE INDEX IF NOT EXISTS organizations_deleted_at_idx
+    ON organizations (deleted_at)
+    WHERE deleted_at IS NOT NULL;
+
+ALTER TABLE organizations
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(full_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(official_address_street, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(official_address_town_name, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS organizations_search_vector_idx
+    ON organizations USING GIN (search_vector);
+
+ALTER TABLE organizations
+    ADD COLUMN IF NOT EXISTS coordinates_point point GENERATED ALWAYS AS (
+        point(coordinates_x, coordinates_y)
+    ) STORED;
+
+ALTER TABLE organizations
+    ADD COLUMN IF NOT EXISTS official_address_town_point point GENERATED ALWAYS AS (
+        point(official_address_town_x, official_address_town_y)
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS organizations_coordinates_point_idx
+    ON organizations USING GIST (coordinates_point);
+
+CREATE INDEX IF NOT EXISTS organizations_official_address_town_point_idx
+    ON organizations USING GIST (official_address_town_point);
+
+CREATE INDEX IF NOT EXISTS organizations_full_name_idx
+    ON organizations (full_name COLLATE "C", id)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS employees_organization_id_salary_idx
+    ON employees (organization_id, salary);
+
+CREATE TABLE IF NOT EXISTS organization_payroll (
+    organization_id bigint PRIMARY KEY REFERENCES organizations (id) ON DELETE CASCADE,
+    headcount       bigint NOT NULL DEFAULT 0,
+    salary_sum      bigint NOT NULL DEFAULT 0,
+    salary_min      bigint,
+    salary_max      bigint
+);
+
+INSERT INTO organization_payroll (organization_id, headcount, salary_sum, salary_min, salary_max)
+SELECT organization_id, count(*), sum(salary), min(salary), max(salary)
+FROM employees
+WHERE organization_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM organization_payroll)
+GROUP BY organization_id;
+
+CREATE INDEX IF NOT EXISTS employees_salary_idx
+    ON employees (salary);
+
+CREATE INDEX IF NOT EXISTS employees_organization_id_id_idx
+    ON employees (organization_id, id);
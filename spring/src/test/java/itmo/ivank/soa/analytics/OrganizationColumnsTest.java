@@ -0,0 +1,95 @@
+package itmo.ivank.soa.analytics;
+
+import itmo.ivank.soa.entity.OrganizationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrganizationColumnsTest {
+
+    private static final OrganizationType[] TYPES = OrganizationType.values();
+
+    @Test
+    void removeMovesTheLastRowIntoTheGap() {
+        var columns = new OrganizationColumns();
+        columns.upsert(1, 10f, 1L, 1f, 1f, 1L, OrganizationType.COMMERCIAL, "a");
+        columns.upsert(2, 20f, 2L, 2f, 2f, 2L, OrganizationType.GOVERNMENT, "b");
+        columns.upsert(3, 30f, null, null, null, null, OrganizationType.COMMERCIAL, null);
+
+        columns.remove(1);
+        columns.upsert(3, 40f, null, null, null, null, OrganizationType.GOVERNMENT, null);
+
+        assertThat(columns.count()).isEqualTo(2);
+        assertThat(columns.stats(NumericColumn.ANNUAL_TURNOVER)).isEqualTo(new ColumnStats(2, 60, 20, 40));
+        assertThat(columns.stats(NumericColumn.COORDINATES_X)).isEqualTo(new ColumnStats(1, 2, 2, 2));
+        assertThat(columns.countByType()).containsEntry(OrganizationType.GOVERNMENT, 2L)
+                .containsEntry(OrganizationType.COMMERCIAL, 0L);
+        assertThat(columns.countByTown()).isEqualTo(Map.of("b", 1L));
+    }
+
+    @Test
+    void clearForgetsRowsAndTowns() {
+        var columns = new OrganizationColumns();
+        columns.upsert(1, 10f, 1L, 1f, 1f, 1L, OrganizationType.COMMERCIAL, "a");
+        columns.clear();
+        columns.upsert(2, 20f, 2L, 2f, 2f, 2L, OrganizationType.COMMERCIAL, "b");
+
+        assertThat(columns.count()).isEqualTo(1);
+        assertThat(columns.countByTown()).isEqualTo(Map.of("b", 1L));
+        assertThat(columns.percentiles(NumericColumn.ANNUAL_TURNOVER, new double[]{0.5})).containsExactly(20);
+    }
+
+    @Test
+    void scansSeeConsistentRowsWhileTheColumnsGrow() throws Exception {
+        int rows = 300_000;
+        var columns = new OrganizationColumns();
+        var done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    while (!done.get()) {
+                        long total = columns.countByType().values().stream().mapToLong(Long::longValue).sum();
+                        assertThat(total).isBetween(0L, (long) rows);
+                        assertThat(columns.countByTown().values().stream().mapToLong(Long::longValue).sum())
+                                .isBetween(0L, (long) rows);
+                        assertThat(columns.stats(NumericColumn.TOWN_Y).count()).isBetween(0L, (long) rows);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                try {
+                    for (int id = 0; id < rows; id++) {
+                        columns.upsert(id, (float) id, (long) id, 0f, 0f, (long) id, TYPES[id % TYPES.length],
+                                "town-" + id % 100);
+                        if (id % 10 == 9) columns.remove(id - 5);
+                    }
+                } finally {
+                    done.set(true);
+                }
+                return null;
+            });
+            writer.get(1, TimeUnit.MINUTES);
+            for (Future<?> reader : readers) reader.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long expected = rows - rows / 10;
+        assertThat(columns.count()).isEqualTo(expected);
+        assertThat(columns.countByType().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(expected);
+        assertThat(columns.countByTown().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(expected);
+    }
+
+}
@@ -0,0 +1,132 @@
+package itmo.ivank.soa.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressingResponseWrapperTest {
+
+    private static final int THRESHOLD = 100;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final CompressingResponseWrapper wrapper = new CompressingResponseWrapper(request, response,
+            CompressionFilter.GZIP, THRESHOLD, List.of("application/xml"));
+
+    private static byte[] xml(int length) {
+        return ("<a>" + "x".repeat(length - 7) + "</a>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] body, int length) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readNBytes(length);
+        }
+    }
+
+    @Test
+    void sendsSmallBodiesAsTheyAre() throws IOException {
+        wrapper.setContentType(MediaType.APPLICATION_XML_VALUE);
+        wrapper.getOutputStream().write(xml(THRESHOLD - 1));
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(THRESHOLD - 1);
+        assertThat(response.getContentAsByteArray()).isEqualTo(xml(THRESHOLD - 1));
+    }
+
+    @Test
+    void compressesBodiesFromTheThresholdOn() throws IOException {
+        wrapper.setContentType(MediaType.APPLICATION_XML_VALUE);
+        wrapper.setContentLength(5000);
+        wrapper.getOutputStream().write(xml(5000));
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo(CompressionFilter.GZIP);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        assertThat(gunzip(response.getContentAsByteArray(), 5000)).isEqualTo(xml(5000));
+    }
+
+    @Test
+    void leavesOtherMediaTypesUncompressed() throws IOException {
+        wrapper.setContentType(MediaType.IMAGE_PNG_VALUE);
+        wrapper.getOutputStream().write(xml(5000));
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(xml(5000));
+    }
+
+    @Test
+    void keepsBufferingOnFlushBelowTheThreshold() throws IOException {
+        wrapper.setContentType(MediaType.APPLICATION_XML_VALUE);
+        var out = wrapper.getOutputStream();
+        out.write(xml(10));
+        out.flush();
+
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        wrapper.finish();
+        assertThat(response.getContentAsByteArray()).isEqualTo(xml(10));
+    }
+
+    @Test
+    void sendsWhatIsBufferedOnFlushBuffer() throws IOException {
+        wrapper.setContentType(MediaType.APPLICATION_XML_VALUE);
+        wrapper.getOutputStream().write(xml(10));
+        wrapper.flushBuffer();
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(gunzip(response.getContentAsByteArray(), 10)).isEqualTo(xml(10));
+    }
+
+    @Test
+    void sendsEveryFlushOfAMarkedResponseWithASyncFlush() throws IOException {
+        CompressionFilter.flushThrough(request);
+        wrapper.setContentType(MediaType.APPLICATION_XML_VALUE);
+        var out = wrapper.getOutputStream();
+        out.flush();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+
+        out.write(xml(10));
+        out.flush();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo(CompressionFilter.GZIP);
+        assertThat(gunzip(response.getContentAsByteArray(), 10)).isEqualTo(xml(10));
+
+        out.write(xml(20));
+        out.flush();
+        assertThat(gunzip(response.getContentAsByteArray(), 30)).endsWith(xml(20));
+        wrapper.finish();
+    }
+
+    @Test
+    void sendsEventStreamsUncompressedOnFlush() throws IOException {
+        wrapper.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        var out = wrapper.getOutputStream();
+        out.write("data: 1\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("data: 1\n\n");
+    }
+
+    @Test
+    void errorsAreSentUncompressed() throws IOException {
+        wrapper.setContentType(MediaType.APPLICATION_XML_VALUE);
+        wrapper.getOutputStream().write(xml(10));
+        wrapper.sendError(500);
+        wrapper.finish();
+
+        assertThat(response.getStatus()).isEqualTo(500);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+}
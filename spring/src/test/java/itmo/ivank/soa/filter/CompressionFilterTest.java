@@ -0,0 +1,61 @@
+package itmo.ivank.soa.filter;
+
+import itmo.ivank.soa.config.CompressionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionFilterTest {
+
+    private final CompressionFilter filter = new CompressionFilter(
+            new CompressionProperties(true, 100, 1000, List.of("application/xml")));
+
+    @Test
+    void negotiatesByQuality() {
+        assertThat(CompressionFilter.negotiate("gzip, deflate")).isEqualTo(CompressionFilter.GZIP);
+        assertThat(CompressionFilter.negotiate("gzip;q=0.5, deflate")).isEqualTo(CompressionFilter.DEFLATE);
+        assertThat(CompressionFilter.negotiate("*;q=0.1, gzip;q=0")).isEqualTo(CompressionFilter.DEFLATE);
+        assertThat(CompressionFilter.negotiate("br")).isNull();
+        assertThat(CompressionFilter.negotiate(null)).isNull();
+    }
+
+    @Test
+    void finishesAsyncResponsesWhenTheyComplete() throws Exception {
+        byte[] body = ("<a>" + "x".repeat(5000) + "</a>").getBytes(StandardCharsets.UTF_8);
+        var request = new MockHttpServletRequest("GET", "/");
+        request.setAsyncSupported(true);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.startAsync();
+            res.setContentType(MediaType.APPLICATION_XML_VALUE);
+            res.getOutputStream().write(body);
+        });
+        assertThat(unzip(response.getContentAsByteArray())).isNotEqualTo(body);
+
+        request.getAsyncContext().complete();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo(CompressionFilter.GZIP);
+        assertThat(unzip(response.getContentAsByteArray())).isEqualTo(body);
+    }
+
+    private static byte[] unzip(byte[] body) {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package itmo.ivank.soa.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DecompressingRequestWrapperTest {
+
+    private static final byte[] BODY = ("<employee><name>" + "x".repeat(1000) + "</name></employee>")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static MockHttpServletRequest request(String encoding, byte[] body) throws IOException {
+        var compressed = new ByteArrayOutputStream();
+        try (var out = CompressionFilter.GZIP.equals(encoding)
+                ? new GZIPOutputStream(compressed)
+                : new DeflaterOutputStream(compressed)) {
+            out.write(body);
+        }
+        var request = new MockHttpServletRequest("POST", "/");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        request.addHeader(HttpHeaders.CONTENT_TYPE, "application/xml");
+        request.setContent(compressed.toByteArray());
+        return request;
+    }
+
+    @Test
+    void inflatesGzipAndHidesTheEncodingHeaders() throws IOException {
+        var wrapper = new DecompressingRequestWrapper(request(CompressionFilter.GZIP, BODY), CompressionFilter.GZIP, 0);
+
+        assertThat(wrapper.getInputStream().readAllBytes()).isEqualTo(BODY);
+        assertThat(wrapper.getInputStream().isFinished()).isTrue();
+        assertThat(wrapper.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(wrapper.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        assertThat(wrapper.getContentLengthLong()).isEqualTo(-1);
+        assertThat(Collections.list(wrapper.getHeaderNames()))
+                .containsExactly(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Test
+    void inflatesDeflateThroughTheReader() throws IOException {
+        var wrapper = new DecompressingRequestWrapper(request(CompressionFilter.DEFLATE, BODY),
+                CompressionFilter.DEFLATE, BODY.length);
+
+        assertThat(wrapper.getReader().readLine()).isEqualTo(new String(BODY, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void stopsReadingBeyondTheInflateLimit() throws IOException {
+        var wrapper = new DecompressingRequestWrapper(request(CompressionFilter.GZIP, BODY),
+                CompressionFilter.GZIP, BODY.length - 1);
+
+        assertThatThrownBy(() -> wrapper.getInputStream().readAllBytes())
+                .isInstanceOf(IOException.class)
+                .hasMessage("Decompressed request body exceeds " + (BODY.length - 1) + " bytes");
+    }
+
+}
@@ -0,0 +1,93 @@
+package itmo.ivank.soa.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import itmo.ivank.soa.config.RetryProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger transactions = new AtomicInteger();
+
+    private final TransactionRetry retry = new TransactionRetry(new TransactionTemplate() {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            transactions.incrementAndGet();
+            return action.doInTransaction(null);
+        }
+    }, new RetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(2)), meterRegistry);
+
+    private static RuntimeException failure(String sqlState) {
+        return new PessimisticLockingFailureException("failed", new SQLException("failed", sqlState));
+    }
+
+    @Test
+    void repeatsDeadlocksAndSerializationFailuresInNewTransactions() {
+        var attempts = new AtomicInteger();
+
+        String result = retry.execute(() -> switch (attempts.incrementAndGet()) {
+            case 1 -> throw failure("40P01");
+            case 2 -> throw new RuntimeException("wrapped", failure("40001"));
+            default -> "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(transactions).hasValue(3);
+        assertThat(meterRegistry.counter("soa.transaction.retries", "reason", "deadlock").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("soa.transaction.retries", "reason", "serialization").count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotRepeatOtherFailures() {
+        var timeout = new CannotAcquireLockException("timeout", new SQLException("timeout", "55P03"));
+
+        assertThatThrownBy(() -> retry.execute(() -> {
+            throw timeout;
+        })).isSameAs(timeout);
+        assertThat(transactions).hasValue(1);
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        var deadlock = failure("40P01");
+
+        assertThatThrownBy(() -> retry.execute(() -> {
+            throw deadlock;
+        })).isSameAs(deadlock);
+        assertThat(transactions).hasValue(3);
+        assertThat(meterRegistry.counter("soa.transaction.retries", "reason", "deadlock").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("soa.transaction.retries.exhausted", "reason", "deadlock").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void joinsAnEnclosingTransactionWithoutRepeating() {
+        var deadlock = failure("40P01");
+        var attempts = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> retry.execute(() -> {
+                attempts.incrementAndGet();
+                throw deadlock;
+            })).isSameAs(deadlock);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(attempts).hasValue(1);
+        assertThat(transactions).hasValue(0);
+    }
+
+}
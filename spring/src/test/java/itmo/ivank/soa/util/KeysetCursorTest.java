@@ -0,0 +1,81 @@
+package itmo.ivank.soa.util;
+
+import itmo.ivank.soa.entity.Employee;
+import itmo.ivank.soa.entity.Organization;
+import itmo.ivank.soa.exception.InvalidSearchQueryException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "id", Long.class,
+            "name", String.class,
+            "salary", Long.class,
+            "organization.id", Long.class);
+
+    private static final Sort SORT = Sort.by(Sort.Order.desc("salary"), Sort.Order.asc("name"),
+            Sort.Order.asc("organization.id"), Sort.Order.asc("id"));
+
+    @Test
+    void roundTripsTheSortKeysOfARow() {
+        var employee = Employee.builder()
+                .id(7L)
+                .name("Ann. O'Neil / ü")
+                .salary(1200L)
+                .organization(Organization.builder().id(3L).build())
+                .build();
+
+        String cursor = KeysetCursor.after(employee, SORT).encode();
+
+        assertThat(cursor).matches("[A-Za-z0-9_.~-]+");
+        assertThat(KeysetCursor.parse(cursor, SORT, TYPES)).containsExactly(1200L, "Ann. O'Neil / ü", 3L, 7L);
+    }
+
+    @Test
+    void keepsNullKeysApartFromTheTextNull() {
+        var withNulls = Employee.builder().id(7L).name(null).salary(null).build();
+        var named = Employee.builder().id(7L).name("null").salary(1L).build();
+
+        String cursor = KeysetCursor.after(withNulls, SORT).encode();
+
+        assertThat(KeysetCursor.parse(cursor, SORT, TYPES)).containsExactly(null, null, null, 7L);
+        assertThat(KeysetCursor.parse(KeysetCursor.after(named, SORT).encode(), SORT, TYPES))
+                .containsExactly(1L, "null", null, 7L);
+    }
+
+    @Test
+    void keepsTheEmptyStringApartFromNull() {
+        var employee = Employee.builder().id(1L).name("").salary(1L).build();
+
+        List<Object> values = KeysetCursor.parse(KeysetCursor.after(employee, SORT).encode(), SORT, TYPES);
+
+        assertThat(values).containsExactly(1L, "", null, 1L);
+    }
+
+    @Test
+    void noCursorStartsFromTheBeginning() {
+        assertThat(KeysetCursor.parse(null, SORT, TYPES)).isNull();
+        assertThat(KeysetCursor.parse("", SORT, TYPES)).isNull();
+    }
+
+    @Test
+    void rejectsCursorsOfAnotherSortOrGarbage() {
+        String cursor = new KeysetCursor(Arrays.asList("1", "7")).encode();
+
+        assertThatThrownBy(() -> KeysetCursor.parse(cursor, SORT, TYPES))
+                .isInstanceOf(InvalidSearchQueryException.class);
+        assertThatThrownBy(() -> KeysetCursor.parse("!!.a.b.c", SORT, TYPES))
+                .isInstanceOf(InvalidSearchQueryException.class);
+        assertThatThrownBy(() -> KeysetCursor.parse("eA.eA.eA.eA", SORT, TYPES))
+                .isInstanceOf(InvalidSearchQueryException.class);
+    }
+
+}